@@ -0,0 +1,51 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.util.concurrent.TimeUnit;
+
+import au.com.xandar.mavenplugin.translate.benchmark.FakeTranslator;
+import au.com.xandar.mavenplugin.translate.benchmark.NullLog;
+import au.com.xandar.mavenplugin.translate.benchmark.TextSample;
+import au.com.xandar.mavenplugin.translate.translator.Translator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures TermParser splitting a term into content and mark up, and EventProcessor reassembling the translated term.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermParserBenchmark {
+
+    @Param
+    public TextSample sample;
+
+    private final TermParser parser = new TermParser(new NullLog());
+    private final Translator translator = new FakeTranslator();
+    private String term;
+
+    @Setup
+    public void setUp() {
+        // Surround the sample with each kind of mark up that the parser skips.
+        term = "<b>" + sample.getText() + "</b> {0} $link]";
+    }
+
+    @Benchmark
+    public OrderedTerms parse() {
+        final OrderedTerms terms = new OrderedTerms();
+        parser.parse(term, new EventProcessor(translator, "en", "de", "key", terms));
+        return terms;
+    }
+}
@@ -0,0 +1,14 @@
+package au.com.xandar.mavenplugin.translate.benchmark;
+
+import au.com.xandar.mavenplugin.translate.translator.AbstractTranslator;
+
+/**
+ * In memory Translator that returns each text prefixed by the target language,
+ * so that benchmarks measure the plugin and not the translation service.
+ */
+public final class FakeTranslator extends AbstractTranslator {
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        return targetLanguage + ":" + text;
+    }
+}
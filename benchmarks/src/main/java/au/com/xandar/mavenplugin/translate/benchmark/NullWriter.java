@@ -0,0 +1,25 @@
+package au.com.xandar.mavenplugin.translate.benchmark;
+
+import java.io.Writer;
+
+/**
+ * Writer that discards everything written to it.
+ */
+public final class NullWriter extends Writer {
+
+    public void write(char[] buffer, int offset, int length) {
+        // Discard.
+    }
+
+    public void write(String text, int offset, int length) {
+        // Discard.
+    }
+
+    public void flush() {
+        // Nothing to flush.
+    }
+
+    public void close() {
+        // Nothing to close.
+    }
+}
@@ -0,0 +1,43 @@
+package au.com.xandar.mavenplugin.translate.benchmark;
+
+/**
+ * Sample source texts, from a short UI label up to long help text.
+ * <p/>
+ * The texts contain the quotes, StringFormat snippets and line ends that the translation hot paths have to deal with.
+ */
+public enum TextSample {
+
+    LABEL("Don't save"),
+    SENTENCE("You have %d new messages from \"%s\"."),
+    PARAGRAPH(Constants.PARAGRAPH),
+    HELP_TEXT(repeat(Constants.PARAGRAPH, 20));
+
+    private final String text;
+
+    TextSample(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @return the sample text, with line ends written as \n as they are in Android strings and properties files.
+     */
+    public String getText() {
+        return text;
+    }
+
+    private static String repeat(String text, int count) {
+        final StringBuilder sb = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            sb.append(text);
+        }
+        return sb.toString();
+    }
+
+    private static final class Constants {
+        private static final String PARAGRAPH =
+                "Find as many words as you can before the time runs out. "
+                + "Each word must be at least %1$d letters long and can't use a letter more than once.\\n"
+                + "You score %2$d points for each letter, and the player's \"best word\" earns a bonus of %3$.1f%%. "
+                + "Tap 'Submit' when you're done.\\n";
+    }
+}
@@ -0,0 +1,96 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import au.com.xandar.mavenplugin.translate.benchmark.FakeTranslator;
+import au.com.xandar.mavenplugin.translate.benchmark.NullWriter;
+import au.com.xandar.mavenplugin.translate.benchmark.TextSample;
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslatorAdapter;
+import au.com.xandar.mavenplugin.translate.translator.LineEndReplacementDecorator;
+import au.com.xandar.mavenplugin.translate.translator.StringFormatReplacementDecorator;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures AndroidStringsSkeletonHandler parsing an Android strings file into a skeleton,
+ * and AndroidStringsWriter writing the skeleton in another language.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AndroidStringsBenchmark {
+
+    @Param
+    public TextSample sample;
+
+    @Param({"10", "500"})
+    public int nrStrings;
+
+    private final AsyncTranslatorAdapter translator = new AsyncTranslatorAdapter(
+            new StringFormatReplacementDecorator(new LineEndReplacementDecorator(new FakeTranslator())));
+    private File sourceFile;
+    private byte[] source;
+    private AndroidStringsSkeleton skeleton;
+
+    @Setup
+    public void setUp() throws Exception {
+        final String text = new CharEscaper().addBackslashes(sample.getText());
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<resources>\n");
+        for (int i = 0; i < nrStrings; i++) {
+            sb.append("    <!-- String ").append(i).append(" -->\n");
+            sb.append("    <string name=\"string_").append(i).append("\">").append(text).append("</string>\n");
+        }
+        sb.append("</resources>\n");
+        source = sb.toString().getBytes("UTF-8");
+
+        sourceFile = File.createTempFile("strings", ".xml");
+        final OutputStream stream = new FileOutputStream(sourceFile);
+        try {
+            stream.write(source);
+        } finally {
+            stream.close();
+        }
+        skeleton = parse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sourceFile.delete();
+    }
+
+    @Benchmark
+    public AndroidStringsSkeleton parse() throws Exception {
+        final AndroidStringsSkeletonHandler handler = new AndroidStringsSkeletonHandler(sourceFile);
+        final SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+        saxParser.getXMLReader().setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+        saxParser.parse(new ByteArrayInputStream(source), handler);
+        return handler.getSkeleton();
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        new AndroidStringsWriter(translator, "en", "de", skeleton, new NullWriter()).write();
+    }
+}
@@ -0,0 +1,51 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.util.concurrent.TimeUnit;
+
+import au.com.xandar.mavenplugin.translate.benchmark.TextSample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures CharEscaper removing the back slashes from a source text and adding them to its translation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharEscaperBenchmark {
+
+    @Param
+    public TextSample sample;
+
+    private final CharEscaper charEscaper = new CharEscaper();
+    private String escapedText;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = sample.getText();
+        escapedText = new CharEscaper().addBackslashes(text);
+    }
+
+    @Benchmark
+    public String removeBackslashes() {
+        return charEscaper.removeBackslashes(escapedText);
+    }
+
+    @Benchmark
+    public String addBackslashes() {
+        return charEscaper.addBackslashes(text);
+    }
+}
@@ -0,0 +1,109 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import au.com.xandar.mavenplugin.translate.OrderedTerms;
+import au.com.xandar.mavenplugin.translate.benchmark.NullWriter;
+import au.com.xandar.mavenplugin.translate.benchmark.TextSample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures OrderedPropertiesPersistor loading and storing a properties file.
+ * <p/>
+ * loadFile and loadChannel compare reading the file through an InputStream with reading it through its FileChannel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderedPropertiesPersistorBenchmark {
+
+    @Param
+    public TextSample sample;
+
+    @Param({"10", "1000"})
+    public int nrEntries;
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    private final OrderedPropertiesPersistor persistor = new OrderedPropertiesPersistor();
+    private byte[] file;
+    private File propertiesFile;
+    private OrderedTerms terms;
+
+    @Setup
+    public void setUp() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("# Sample properties\n");
+        for (int i = 0; i < nrEntries; i++) {
+            sb.append("message.").append(i).append(" = ").append(sample.getText()).append('\n');
+        }
+        file = sb.toString().getBytes("ISO-8859-1");
+        terms = persistor.load(new ByteArrayInputStream(file));
+
+        propertiesFile = File.createTempFile("messages", ".properties");
+        final OutputStream stream = new FileOutputStream(propertiesFile);
+        try {
+            stream.write(file);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        propertiesFile.delete();
+    }
+
+    @Benchmark
+    public OrderedTerms load() throws IOException {
+        final InputStream stream = new ByteArrayInputStream(file);
+        return persistor.load(stream);
+    }
+
+    @Benchmark
+    public OrderedTerms loadFile() throws IOException {
+        final InputStream stream = new FileInputStream(propertiesFile);
+        try {
+            return persistor.load(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Benchmark
+    public OrderedTerms loadChannel() throws IOException {
+        final FileInputStream stream = new FileInputStream(propertiesFile);
+        try {
+            return persistor.load(stream.getChannel(), ISO_8859_1);
+        } finally {
+            stream.close();
+        }
+    }
+
+    @Benchmark
+    public void store() throws IOException {
+        persistor.store(new NullWriter(), terms);
+    }
+}
@@ -0,0 +1,45 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.TimeUnit;
+
+import au.com.xandar.mavenplugin.translate.benchmark.FakeTranslator;
+import au.com.xandar.mavenplugin.translate.benchmark.TextSample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures LineEndReplacementDecorator splitting a text at its line ends and joining the translated segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineEndReplacementDecoratorBenchmark {
+
+    @Param
+    public TextSample sample;
+
+    private final Translator translator = new LineEndReplacementDecorator(new FakeTranslator());
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = sample.getText();
+    }
+
+    @Benchmark
+    public String translate() {
+        return translator.translate(text, "en", "de");
+    }
+}
@@ -0,0 +1,111 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares StringFormatTokenizer with the replaceFirst/reset regex loop it replaced,
+ * replacing the StringFormat snippets of a text with tokens and reinstating them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringFormatTokenizerBenchmark {
+
+    private static final Pattern PATTERN = Pattern.compile("(\\s*%(\\d*\\$)?[,+ (-0#]?\\d*(.\\d*)?(" +
+            "[sScCdoxXfeEgGaAbBhH%n]|" +
+            "ta|tA|tb|tB|tc|tC|td|tD|te|eF|th|tH|tI|tj|tk|tk|tl|tL|tm|tM|tN|tp|tQ|tr|tR|ts|tS|tT|ty|tY|tz|tZ" +
+            ")[-_:]?\\s*)+");
+
+    /**
+     * Number of sentences in the text, each containing a StringFormat snippet.
+     * 1 is a UI label, 100 is long help text.
+     */
+    @Param({"1", "10", "100"})
+    public int nrSentences;
+
+    private String text;
+    private String tokenizedText;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= nrSentences; i++) {
+            sb.append("You have found %").append(i).append("$d of the %d words, keep going! ");
+        }
+        text = sb.toString();
+        tokenizedText = StringFormatTokenizer.tokenize(text).getTokenizedText();
+    }
+
+    @Benchmark
+    public String tokenizer() {
+        final StringFormatTokenizer tokenizer = StringFormatTokenizer.tokenize(text);
+        return tokenizer.getTextWithTokensReplaced(tokenizedText);
+    }
+
+    @Benchmark
+    public String regexReplaceFirst() {
+        final Map<String, String> tokens = new HashMap<String, String>();
+        final String tokenized = replaceStringFormatsWithTokens(text, tokens);
+        return replaceTokens(tokenized, tokens);
+    }
+
+    private static String replaceStringFormatsWithTokens(String text, Map<String, String> tokens) {
+        int tokenNr = 1;
+        String output = text;
+        final Matcher matcher = PATTERN.matcher(text);
+        while (matcher.find()) {
+            final String token = "STR_TOKEN_" + tokenNr;
+            final String foundText = matcher.group();
+            output = matcher.replaceFirst(" " + token + " ");
+            matcher.reset(output);
+            tokens.put(token, foundText);
+            tokenNr++;
+        }
+        return output;
+    }
+
+    private static String replaceTokens(String text, Map<String, String> tokens) {
+        final StringBuilder output = new StringBuilder(text);
+        for (final Map.Entry<String, String> entry : tokens.entrySet()) {
+            int i = output.indexOf(entry.getKey());
+            if (i == -1) {
+                continue;
+            }
+            while ((i > 0) && (output.charAt(i - 1) == 32)) {
+                output.deleteCharAt(--i);
+            }
+            final int j = i + entry.getKey().length();
+            while ((j < output.length()) && (output.charAt(j) == 32)) {
+                output.deleteCharAt(j);
+            }
+        }
+        for (final Map.Entry<String, String> entry : tokens.entrySet()) {
+            final int i = output.indexOf(entry.getKey());
+            if (i == -1) {
+                continue;
+            }
+            output.delete(i, i + entry.getKey().length());
+            output.insert(i, entry.getValue());
+        }
+        return output.toString();
+    }
+}
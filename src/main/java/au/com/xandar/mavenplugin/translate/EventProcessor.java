@@ -1,5 +1,8 @@
 package au.com.xandar.mavenplugin.translate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import au.com.xandar.mavenplugin.translate.translator.Translator;
 
 /**
@@ -9,7 +12,7 @@ import au.com.xandar.mavenplugin.translate.translator.Translator;
  * Date: 21/08/11
  * Time: 10:33 AM
  */
-final class EventProcessor {
+public final class EventProcessor {
 
     //Boolean debug;
     private final String sourceLanguage;
@@ -18,6 +21,12 @@ final class EventProcessor {
     private final OrderedTerms terms;
     private final Translator translator;
 
+    // Markup and the whitespace around each content in the order they were found.
+    // The translation of each content is inserted at its offset when the term is flushed.
+    private final StringBuilder value = new StringBuilder();
+    private final List<String> contents = new ArrayList<String>();
+    private final List<Integer> contentOffsets = new ArrayList<Integer>();
+
     public EventProcessor(Translator translator, String sourceLanguage, String destLanguage, String key, OrderedTerms terms) {
         this.translator = translator;
         this.sourceLanguage = sourceLanguage;
@@ -29,9 +38,11 @@ final class EventProcessor {
     /**
      * Appends the mark up without any translation.
      *
-     * @param markup    String to append untranslated.
+     * @param term  Term containing the mark up.
+     * @param start Index of the start of the mark up.
+     * @param end   Index following the end of the mark up.
      */
-    public void foundMarkup(String markup) {
+    public void foundMarkup(CharSequence term, int start, int end) {
         // if (debug) {
         // System.out.println("markup0:[" + markup + "]");
         // }
@@ -52,62 +63,82 @@ final class EventProcessor {
         //if (markup.equalsIgnoreCase("<br>")) {
         //    writer.write("\\\r\n");
 
-        // set named property value;
-        // append to any existing value in the property
-        final String currentValue = terms.getProperty(key,"");
-        terms.setProperty(key, currentValue + markup);
+        value.append(term, start, end);
     }
 
     /**
-     * Translates the content and appends it.
+     * Queues the content for translation.
+     * <p>
+     *     The content is translated and appended when {@link #flush()} is called.
+     * </p>
      *
-     * @param content   Content to be translated and appended.
-     * @return translated content.
+     * @param term  Term containing the content.
+     * @param start Index of the start of the content.
+     * @param end   Index following the end of the content.
      */
-    public String foundContent(String content) {
-        final String translatedText;
-        if (content.trim().length() > 0) {
-            final String prefix = stripFront(content); // extract whitespace from start
-            final String suffix = stripEnd(content); // extract whitespace from end
-            content = content.trim();
-            final String coreText = translator.translate(content, sourceLanguage, destLanguage);
-            translatedText = prefix + coreText + suffix;
-        } else {
-            translatedText = content;
+    public void foundContent(CharSequence term, int start, int end) {
+        final int coreStart = skipWhitespace(term, start, end);
+        final int coreEnd = skipTrailingWhitespace(term, coreStart, end);
+        value.append(term, start, coreStart);
+        if (coreEnd > coreStart) {
+            contentOffsets.add(value.length());
+            contents.add(term.subSequence(coreStart, coreEnd).toString());
         }
+        value.append(term, coreEnd, end);
+    }
 
-        final String currentValue = terms.getProperty(key,"");
-        terms.setProperty(key, currentValue + translatedText);
+    /**
+     * Translates all of the content that has been found in a single batch
+     * and appends it, along with the mark up, to the term.
+     */
+    public void flush() {
+        if (contents.isEmpty()) {
+            if (value.length() > 0) {
+                terms.appendProperty(key, value);
+            }
+        } else {
+            final List<String> coreTexts = translator.translateAll(contents, sourceLanguage, destLanguage);
+            final StringBuilder translated = new StringBuilder(value.length() + value.length() / 2);
+            int copied = 0;
+            for (int i = 0; i < contentOffsets.size(); i++) {
+                final int offset = contentOffsets.get(i);
+                translated.append(value, copied, offset).append(coreTexts.get(i));
+                copied = offset;
+            }
+            translated.append(value, copied, value.length());
+            terms.appendProperty(key, translated);
+        }
 
-        return translatedText;
+        value.setLength(0);
+        contents.clear();
+        contentOffsets.clear();
     }
 
     /**
-     * @param s String from which to strip leading white space.
-     * @return the whitespace from the front of a string.
+     * @param text  Text being scanned.
+     * @param start Index from which to skip white space.
+     * @param end   Index at which to stop.
+     * @return index of the first non white space character at or after start, or end if there is none.
      */
-    private String stripFront(String s) {
-        final int len = s.length();
-        int st = 0;
-        final char[] val = s.toCharArray();
-        while ((st < len) && (val[st] <= ' ')) {
-            st++;
+    private int skipWhitespace(CharSequence text, int start, int end) {
+        int i = start;
+        while ((i < end) && (text.charAt(i) <= ' ')) {
+            i++;
         }
-        return (st > 0) ? s.substring(0, st) : "";
+        return i;
     }
 
     /**
-     * @param s String from which to strip trailing white space.
-     * @return the whitespace from the end of a string.
+     * @param text  Text being scanned.
+     * @param start Index at which to stop.
+     * @param end   Index following the text from which to strip trailing white space.
+     * @return index following the last non white space character before end, or start if there is none.
      */
-    private String stripEnd(String s) {
-        int len = s.length();
-        int c = 0;
-        final char[] val = s.toCharArray();
-        while (len > 0 && val[len - 1] <= ' ') {
-            len--;
-            c++;
+    private int skipTrailingWhitespace(CharSequence text, int start, int end) {
+        int i = end;
+        while ((i > start) && (text.charAt(i - 1) <= ' ')) {
+            i--;
         }
-        return (c > 0) ? s.substring(s.length() - c) : "";
+        return i;
     }
 }
@@ -4,12 +4,38 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import au.com.xandar.mavenplugin.translate.transformer.ResourceTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.SnapshotLocator;
 import au.com.xandar.mavenplugin.translate.transformer.android.AndroidStringsTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.properties.PropertiesTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.text.TextFileTransformer;
+import au.com.xandar.mavenplugin.translate.translator.AdaptiveConcurrencyLimiter;
 import au.com.xandar.mavenplugin.translate.translator.BingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.CircuitBreaker;
+import au.com.xandar.mavenplugin.translate.translator.ConcurrencyLimitDecorator;
 import au.com.xandar.mavenplugin.translate.translator.EmptyStringTranslator;
 import au.com.xandar.mavenplugin.translate.translator.GoogleTranslator;
+import au.com.xandar.mavenplugin.translate.translator.HedgingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.HttpTransport;
+import au.com.xandar.mavenplugin.translate.translator.PackingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.RateLimitDecorator;
+import au.com.xandar.mavenplugin.translate.translator.RateLimiter;
+import au.com.xandar.mavenplugin.translate.translator.RetryingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.StatisticsDecorator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationCacheDecorator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationMemory;
+import au.com.xandar.mavenplugin.translate.translator.TranslationMemoryDecorator;
 import au.com.xandar.mavenplugin.translate.translator.Translator;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -150,20 +176,49 @@ public final class LocalizeMojo extends AbstractMojo {
     private String apiKey;
 
     /**
-     * Maximum number of calls to google before pauzing.
-     * Google will block the translation service if too many calls are made from on source within a short period.
-     * To prevent this, the plugin will pause for "pauzeSeconds" after " maxCalls".
+     * (Optional)
+     * Maximum average number of requests per second to send to the translation service.
+     * <p>
+     *     Requests are spread out so that this rate is never exceeded, across all threads.
+     *     Set it to your quota to run as fast as the translation service allows without being blocked.
+     *     Zero means no limit.
+     * </p>
      *
-     * @parameter expression="1500"
+     * @parameter default-value="0"
      */
-    private int maxCalls;
+    private double requestsPerSecond;
 
     /**
-     * Pause in seconds after maxCalls have been made
+     * (Optional)
+     * Maximum average number of characters per second to send to the translation service.
+     * <p>
+     *     Zero means no limit.
+     * </p>
      *
-     * @parameter expression="180"
+     * @parameter default-value="0"
      */
-    private int pauseSeconds;
+    private double charactersPerSecond;
+
+
+    /**
+     * (Optional)
+     * Whether to remember every translation in the translationMemoryFolder and
+     * reuse it instead of asking the translation service again.
+     *
+     * @parameter default-value="true"
+     */
+    private boolean useTranslationMemory;
+
+    /**
+     * Folder in which previous translations are remembered.
+     * <p>
+     *     Translations are keyed by text, language and translation service so
+     *     the folder can be safely shared between builds, branches and projects.
+     * </p>
+     *
+     * @parameter default-value="${user.home}/.translator-maven-plugin/translation-memory"
+     */
+    private File translationMemoryFolder;
 
 
     // PropertyFile transformer params
@@ -176,8 +231,180 @@ public final class LocalizeMojo extends AbstractMojo {
      *
      * @parameter default-value="true"
      */
-    //private boolean includeDateHeader;
+    private boolean includeDateHeader;
+
+    /**
+     * (Optional)
+     * Only translate files whose source, configuration or output have changed since they were last translated.
+     * <p>
+     *     A manifest of what was translated is kept in the targetFolder.
+     *     Within a changed Android strings or properties file only the strings that were added or changed are translated,
+     *     the others are copied from the previously generated file.
+     * </p>
+     *
+     * @parameter default-value="true"
+     */
+    private boolean incremental;
+
+    /**
+     * Version of this plugin, recorded in the manifest so that files generated by another version are translated again.
+     *
+     * @parameter default-value="${plugin.version}"
+     * @readonly
+     */
+    private String pluginVersion;
+
+    /**
+     * (Optional)
+     * Number of files to translate at the same time.
+     * <p>
+     *     Each combination of source file and target language is translated on its own thread, up to this many at once.
+     * </p>
+     *
+     * @parameter default-value="1"
+     */
+    private int threads;
+
+    /**
+     * (Optional)
+     * Maximum number of strings to send to the translation service at once.
+     *
+     * @parameter default-value="100"
+     */
+    private int batchSize;
+
+    /**
+     * (Optional)
+     * Maximum number of batches of strings from each file to have waiting on the translation service at once.
+     * <p>
+     *     With more than one, batches are translated in the background while the rest of the file is parsed.
+     * </p>
+     *
+     * @parameter default-value="1"
+     */
+    private int batchesInFlight;
+
+    /**
+     * (Optional)
+     * Whether to parse each Android strings file once and reuse it for every target language.
+     * <p>
+     *     Parsing once holds the whole of each source file in memory until it has been translated into every language,
+     *     so with several threads several whole files are held at once.
+     *     Turn this off to stream each file to its target as it is translated, parsing it again for each language,
+     *     so that memory depends only on the texts waiting on translation rather than on the size of the files.
+     * </p>
+     *
+     * @parameter default-value="true"
+     */
+    private boolean parseOnce;
+
+    /**
+     * (Optional)
+     * Maximum number of characters of a text file to send to the translation service at once, at least 2.
+     * <p>
+     *     Text files are translated a paragraph at a time, and paragraphs longer than this are split between sentences.
+     * </p>
+     *
+     * @parameter default-value="4000"
+     */
+    private int maxSegmentLength;
+
+    /**
+     * (Optional)
+     * Maximum number of translations to hold in memory so that repeated strings are only translated once per build.
+     * <p>
+     *     Zero disables the cache.
+     * </p>
+     *
+     * @parameter default-value="10000"
+     */
+    private int translationCacheSize;
+
+    /**
+     * (Optional)
+     * Maximum number of characters of short texts to pack into a single text for the translation service.
+     * <p>
+     *     Packing shares the overhead of each request between many short strings.
+     *     Zero disables packing.
+     * </p>
+     *
+     * @parameter default-value="1000"
+     */
+    private int maxPackedLength;
+
+    /**
+     * (Optional)
+     * Maximum number of times to retry a request that failed for a transient reason, such as a dropped connection or a 429 or 5xx response.
+     * <p>
+     *     Retries back off exponentially, honouring any Retry-After from the service,
+     *     and requests are held back while the service keeps failing.
+     *     Zero disables retrying.
+     * </p>
+     *
+     * @parameter default-value="5"
+     */
+    private int maxRetries;
+
+    /**
+     * (Optional)
+     * Whether to adapt the number of requests in flight to the translation service to how well it copes.
+     * <p>
+     *     Starting from one, the number grows while the service responds promptly and is halved when it throttles or fails,
+     *     up to one per thread and batch in flight.
+     * </p>
+     *
+     * @parameter default-value="true"
+     */
+    private boolean adaptiveConcurrency;
+
+    /**
+     * (Optional)
+     * Percentile of the translation service's latency after which to send a duplicate of a slow request, e.g. 95.
+     * <p>
+     *     Whichever of the request and its duplicate completes first is used, and the other is aborted.
+     *     Zero disables hedging.
+     * </p>
+     * <p>
+     *     Latencies are kept in power of two buckets, so a duplicate may be sent after up to twice the configured percentile.
+     * </p>
+     *
+     * @parameter default-value="0"
+     */
+    private double hedgePercentile;
+
+    /**
+     * (Optional)
+     * Maximum number of duplicate requests to send when hedging, as a percentage of the requests.
+     *
+     * @parameter default-value="5"
+     */
+    private double hedgeBudgetPercent;
+
+    /**
+     * (Optional)
+     * File in which to write a JSON report of the run.
+     * <p>
+     *     The report holds the calls made to the translation service for each language pair and their latency,
+     *     the time spent waiting on the rate limit, the translation cache and memory hit ratios,
+     *     and the time taken to translate each file.
+     * </p>
+     *
+     * @parameter default-value="${project.build.directory}/translation-statistics.json"
+     */
+    private File statisticsFile;
 
+    private static final String MANIFEST_FILE_NAME = "translation-manifest.properties";
+    private static final String SNAPSHOT_FOLDER_NAME = "snapshots";
+    private static final int CIRCUIT_BREAKER_THRESHOLD = 5;
+    private static final long CIRCUIT_BREAKER_OPEN_MILLIS = 10000;
+    private static final long CIRCUIT_BREAKER_MAX_OPEN_MILLIS = 5 * 60000;
+
+    private TranslationMemory translationMemory;
+    private TranslationCacheDecorator translationCache;
+    private ExecutorService translationExecutor;
+    private ExecutorService hedgingExecutor;
+    private HedgingTranslator hedgingTranslator;
+    private RunStatistics runStatistics;
 
     public LocalizeMojo() {
         // This is the constructor used my maven-plugin-plugin.
@@ -189,8 +416,8 @@ public final class LocalizeMojo extends AbstractMojo {
         // A better solution would be to use Java5 annotations to denote params etc.
         // There are a couple of attempts to do this, but nothing seems 100%.
 
-        this.maxCalls = 0;
-        this.pauseSeconds = 0;
+        this.requestsPerSecond = 0;
+        this.charactersPerSecond = 0;
 
         this.translationType = null;
         this.sourceLanguage = null;
@@ -202,61 +429,416 @@ public final class LocalizeMojo extends AbstractMojo {
         this.targetFolder = outputFolder;
 
         this.createEmptyFiles = false;
+        this.includeDateHeader = false;
+        this.useTranslationMemory = false;
+        this.translationMemoryFolder = null;
+        this.incremental = false;
+        this.pluginVersion = null;
+        this.threads = 0;
+        this.batchSize = 0;
+        this.batchesInFlight = 0;
+        this.parseOnce = false;
+        this.maxSegmentLength = 0;
+        this.translationCacheSize = 0;
+        this.maxPackedLength = 0;
+        this.maxRetries = 0;
+        this.adaptiveConcurrency = false;
+        this.hedgePercentile = 0;
+        this.hedgeBudgetPercent = 0;
+        this.statisticsFile = null;
     }
 
     public void execute() throws MojoExecutionException, MojoFailureException {
 
-        final Translator translator = getTranslator();
-        final ResourceTransformer transformer = getTransformer(translator);
+        // Checked before anything is translated, rather than failing on the first text file.
+        if (TranslationType.textFile.equals(translationType) && maxSegmentLength < 2) {
+            throw new MojoExecutionException("maxSegmentLength must be at least 2 : " + maxSegmentLength);
+        }
 
         final Collection<File> files = getFilesToProcess();
         getLog().info(files.size() + " files being translated into " + targetLanguages.length + " languages");
 
+        final TransformManifest manifest = incremental ? loadManifest() : null;
+        final List<TransformUnit> units = getUnitsToTransform(files, manifest);
+
+        runStatistics = new RunStatistics();
+        runStatistics.setTranslationType(String.valueOf(translationType));
+        runStatistics.setServiceName(translationService);
+        if (units.isEmpty()) {
+            getLog().info("All translations are up to date");
+            writeStatistics(); // Reports a run that made no calls.
+            return;
+        }
+
+        final Translator translator = getTranslator();
+        try {
+            transformFiles(translator, units, manifest);
+            if (translationCache != null) {
+                getLog().info("Translation cache: " + translationCache.getHits() + " hits, "
+                        + translationCache.getMisses() + " misses, "
+                        + translationCache.getCoalesced() + " shared with an identical translation in flight");
+            }
+            if (hedgingTranslator != null) {
+                getLog().info("Hedging: " + hedgingTranslator.getHedges() + " of " + hedgingTranslator.getRequests() + " requests hedged, "
+                        + hedgingTranslator.getHedgeWins() + " won by the hedge, "
+                        + hedgingTranslator.getOverBudget() + " not hedged as over budget");
+            }
+        } finally {
+            if (translationExecutor != null) {
+                translationExecutor.shutdownNow();
+                translationExecutor = null;
+            }
+            if (hedgingExecutor != null) {
+                hedgingExecutor.shutdownNow();
+                hedgingExecutor = null;
+            }
+            closeTranslationMemory();
+            if (manifest != null) {
+                saveManifest(manifest);
+            }
+            writeStatistics();
+        }
+    }
+
+    private void writeStatistics() {
+        if (statisticsFile == null) {
+            return;
+        }
+        try {
+            runStatistics.write(statisticsFile);
+            getLog().info("Translation statistics written to " + statisticsFile);
+        } catch (IOException e) {
+            getLog().warn("Could not write translation statistics to " + statisticsFile, e);
+        }
+    }
+
+    private void transformFiles(Translator translator, List<TransformUnit> units, TransformManifest manifest) throws MojoExecutionException {
+        final ResourceTransformer transformer = getTransformer(translator);
+
+        final Map<File, Integer> remainingUnits = new HashMap<File, Integer>();
+        for (final TransformUnit unit : units) {
+            final Integer nrUnits = remainingUnits.get(unit.getSourceFile());
+            remainingUnits.put(unit.getSourceFile(), (nrUnits == null) ? 1 : nrUnits + 1);
+        }
+
         getLog().debug("sourceLanguage: [" + sourceLanguage + "]");
-        for (final File sourceFile : files) {
-            for (String targetLanguage : targetLanguages) {
-                final File targetFile = getDestinationFile(sourceFile, targetLanguage);
-                getLog().info("sourceFile: [" + sourceFile.getName() + "]   language=" + targetLanguage);
+        if (threads > 1 && units.size() > 1) {
+            transformInParallel(transformer, units, manifest, remainingUnits);
+        } else {
+            for (final TransformUnit unit : units) {
+                getLog().info("sourceFile: [" + unit.getSourceFile().getName() + "]   language=" + unit.getTargetLanguage());
                 try {
-                    transformer.transform(sourceFile, targetFile, targetLanguage);
+                    transform(transformer, unit);
+                    onTransformed(unit, manifest);
+                    release(transformer, unit, remainingUnits);
                 } catch (IOException e) {
-                    throw new MojoExecutionException("Could not transform " + sourceFile + " to " + targetLanguage, e);
+                    throw new MojoExecutionException("Could not transform " + unit.getSourceFile() + " to " + unit.getTargetLanguage(), e);
                 }
             }
         }
         getLog().info("");
     }
 
+    /**
+     * Transforms each unit on its own thread, using at most {@link #threads} threads.
+     * <p>
+     *     Each unit writes its own target file, so the output is the same as for a serial build.
+     *     All logging and manifest updates are done from this thread as each unit completes.
+     *     The first unit to fail stops the build and any outstanding units are cancelled.
+     * </p>
+     */
+    private void transformInParallel(final ResourceTransformer transformer, List<TransformUnit> units, TransformManifest manifest,
+                                     Map<File, Integer> remainingUnits) throws MojoExecutionException {
+        getLog().info("Translating with " + threads + " threads");
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, units.size()));
+        try {
+            final CompletionService<TransformUnit> completionService = new ExecutorCompletionService<TransformUnit>(executor);
+            final Map<Future<TransformUnit>, TransformUnit> submitted = new HashMap<Future<TransformUnit>, TransformUnit>();
+            for (final TransformUnit unit : units) {
+                final Future<TransformUnit> future = completionService.submit(new Callable<TransformUnit>() {
+                    public TransformUnit call() throws IOException {
+                        transform(transformer, unit);
+                        return unit;
+                    }
+                });
+                submitted.put(future, unit);
+            }
+
+            for (int i = 0; i < units.size(); i++) {
+                final Future<TransformUnit> future = completionService.take();
+                final TransformUnit unit = submitted.get(future);
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new MojoExecutionException("Could not transform " + unit.getSourceFile() + " to " + unit.getTargetLanguage(), e.getCause());
+                }
+                getLog().info("sourceFile: [" + unit.getSourceFile().getName() + "]   language=" + unit.getTargetLanguage());
+                try {
+                    onTransformed(unit, manifest);
+                } catch (IOException e) {
+                    throw new MojoExecutionException("Could not record transform of " + unit.getSourceFile() + " to " + unit.getTargetLanguage(), e);
+                }
+                release(transformer, unit, remainingUnits);
+            }
+        } catch (InterruptedException e) {
+            throw new MojoExecutionException("Interrupted waiting for translations to complete", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void transform(ResourceTransformer transformer, TransformUnit unit) throws IOException {
+        final long start = System.nanoTime();
+        transformer.transform(unit.getSourceFile(), unit.getTargetFile(), unit.getTargetLanguage());
+        runStatistics.recordFile(unit, System.nanoTime() - start);
+    }
+
+    private void onTransformed(TransformUnit unit, TransformManifest manifest) throws IOException {
+        if (manifest != null) {
+            manifest.update(unit.getSourceHash(), unit.getTargetFile());
+        }
+    }
+
+    /**
+     * Once every unit of a source file has been transformed, discards anything the transformer holds for the file,
+     * so that a parse of every source file isn't held until the end of the build.
+     */
+    private void release(ResourceTransformer transformer, TransformUnit unit, Map<File, Integer> remainingUnits) {
+        final int nrUnits = remainingUnits.get(unit.getSourceFile()) - 1;
+        if (nrUnits > 0) {
+            remainingUnits.put(unit.getSourceFile(), nrUnits);
+            return;
+        }
+        remainingUnits.remove(unit.getSourceFile());
+        if (transformer instanceof AndroidStringsTransformer) {
+            ((AndroidStringsTransformer) transformer).release(unit.getSourceFile());
+        }
+    }
+
+    /**
+     * @param files     Source files to transform.
+     * @param manifest  TransformManifest recording previous transformations, or null if the build is not incremental.
+     * @return every (sourceFile, targetLanguage) combination whose output needs to be generated.
+     * @throws MojoExecutionException if a source or target file could not be read.
+     */
+    private List<TransformUnit> getUnitsToTransform(Collection<File> files, TransformManifest manifest) throws MojoExecutionException {
+        final List<TransformUnit> units = new ArrayList<TransformUnit>();
+        int nrUpToDate = 0;
+        for (final File sourceFile : files) {
+            try {
+                final String sourceHash = (manifest == null) ? null : TransformManifest.hash(sourceFile);
+                for (final String targetLanguage : targetLanguages) {
+                    final File targetFile = getDestinationFile(sourceFile, targetLanguage);
+                    if (manifest != null && manifest.isUpToDate(sourceHash, targetFile)) {
+                        getLog().debug("Up to date: " + targetFile);
+                        nrUpToDate++;
+                    } else {
+                        if (manifest != null && !manifest.hasSameConfiguration(targetFile)) {
+                            // Translations made with a different configuration can't be reused.
+                            deleteSnapshot(targetFile);
+                        }
+                        units.add(new TransformUnit(sourceFile, sourceHash, targetFile, targetLanguage));
+                    }
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Could not determine whether " + sourceFile + " needs to be translated", e);
+            }
+        }
+        if (nrUpToDate > 0) {
+            getLog().info(nrUpToDate + " translations are up to date, " + units.size() + " need to be generated");
+        }
+        return units;
+    }
+
+    /**
+     * The returned File will have the same offset within the snapshot folder as the target file has within the target folder.
+     *
+     * @param targetFile    File generated by a ResourceTransformer.
+     * @return File in which to keep a snapshot of the source text from which the target file was generated.
+     */
+    private File getSnapshotFile(File targetFile) {
+        final String targetFolderPath = targetFolder.getAbsolutePath();
+        final String relativeFilePath = targetFile.getAbsolutePath().substring(targetFolderPath.length() + 1);
+        return new File(new File(targetFolder, SNAPSHOT_FOLDER_NAME), relativeFilePath + ".properties");
+    }
+
+    private void deleteSnapshot(File targetFile) throws IOException {
+        final File snapshotFile = getSnapshotFile(targetFile);
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            throw new IOException("Could not delete " + snapshotFile);
+        }
+    }
+
+    private TransformManifest loadManifest() throws MojoExecutionException {
+        final TransformManifest manifest = new TransformManifest(new File(targetFolder, MANIFEST_FILE_NAME), getConfigurationDescription());
+        try {
+            manifest.load();
+        } catch (IOException e) {
+            getLog().warn("Could not read " + MANIFEST_FILE_NAME + ", all files will be translated", e);
+        }
+        return manifest;
+    }
+
+    private void saveManifest(TransformManifest manifest) {
+        try {
+            manifest.save();
+        } catch (IOException e) {
+            getLog().warn("Could not write " + MANIFEST_FILE_NAME + ", all files will be translated next build", e);
+        }
+    }
+
+    /**
+     * @return description of the configuration that determines the content of every generated file.
+     */
+    private String getConfigurationDescription() {
+        return "pluginVersion=" + pluginVersion
+                + ",translationType=" + translationType
+                + ",sourceLanguage=" + sourceLanguage
+                + ",sourceFileEncoding=" + sourceFileEncoding
+                + ",targetFileEncoding=" + targetFileEncoding
+                + ",createEmptyFiles=" + createEmptyFiles
+                + ",includeDateHeader=" + includeDateHeader
+                + ",maxSegmentLength=" + maxSegmentLength
+                + ",maxPackedLength=" + maxPackedLength
+                + ",translationService=" + translationService;
+    }
+
+    private void closeTranslationMemory() {
+        if (translationMemory != null) {
+            try {
+                translationMemory.close();
+            } catch (IOException e) {
+                getLog().warn("Could not close translation memory in " + translationMemoryFolder, e);
+            }
+            translationMemory = null;
+        }
+    }
+
     private ResourceTransformer getTransformer(Translator translator) throws MojoExecutionException {
-        // TODO return a Transformer based upon the translationType (textFile, propertyFile, androidStrings).
+        // Return a Transformer based upon the translationType (textFile, propertyFile, androidStrings).
         if (translationType.equals(TranslationType.propertiesFile)) {
+            final PropertiesTransformer transformer = new PropertiesTransformer(sourceLanguage, translator, getLog());
+            transformer.setSourceFileEncoding(sourceFileEncoding);
+            transformer.setTargetFileEncoding(targetFileEncoding);
+            transformer.setIncludeDateHeader(includeDateHeader);
+            if (incremental) {
+                transformer.setSnapshotLocator(getSnapshotLocator());
+            }
+            return transformer;
         } else if (translationType.equals(TranslationType.textFile)) {
+            final TextFileTransformer transformer = new TextFileTransformer(sourceLanguage, translator);
+            transformer.setSourceFileEncoding(sourceFileEncoding);
+            transformer.setTargetFileEncoding(targetFileEncoding);
+            transformer.setBatchSize(batchSize);
+            transformer.setMaxSegmentLength(maxSegmentLength);
+            if (batchesInFlight > 1) {
+                transformer.setExecutor(getTranslationExecutor(), batchesInFlight);
+            }
+            return transformer;
         } else if (translationType.equals(TranslationType.androidStrings)) {
-            final ResourceTransformer transformer = new AndroidStringsTransformer(sourceLanguage, translator);
+            final AndroidStringsTransformer transformer = new AndroidStringsTransformer(sourceLanguage, translator);
             transformer.setSourceFileEncoding(sourceFileEncoding);
             transformer.setTargetFileEncoding(targetFileEncoding);
+            transformer.setBatchSize(batchSize);
+            transformer.setParseOnce(parseOnce);
+            if (batchesInFlight > 1) {
+                transformer.setExecutor(getTranslationExecutor(), batchesInFlight);
+            }
+            if (incremental) {
+                transformer.setSnapshotLocator(getSnapshotLocator());
+            }
             return transformer;
         }
 
         throw new MojoExecutionException("TranslationType '" + translationType + "' is not supported");
     }
 
+    /**
+     * @return ExecutorService on which batches in flight are translated, with enough threads for every file being translated at once.
+     */
+    private ExecutorService getTranslationExecutor() {
+        if (translationExecutor == null) {
+            translationExecutor = Executors.newFixedThreadPool(batchesInFlight * Math.max(1, threads));
+        }
+        return translationExecutor;
+    }
+
+    private SnapshotLocator getSnapshotLocator() {
+        return new SnapshotLocator() {
+            public File getSnapshotFile(File targetFile) {
+                return LocalizeMojo.this.getSnapshotFile(targetFile);
+            }
+        };
+    }
+
     private Translator getTranslator() throws MojoExecutionException {
         if (createEmptyFiles) {
             return new EmptyStringTranslator();
         }
 
+        // One transport for the whole run, so its connections are reused by every thread. Hedging may double the requests in flight.
+        final HttpTransport transport = new HttpTransport();
+        transport.setMaxConnections(2 * batchesInFlight * Math.max(1, threads));
+        runStatistics.setTransport(transport);
+
+        final StatisticsDecorator service = new StatisticsDecorator(getServiceTranslator(transport), translationService);
+        runStatistics.setService(service);
+        final RateLimiter rateLimiter = new RateLimiter(requestsPerSecond, charactersPerSecond);
+        runStatistics.setRateLimiter(rateLimiter);
+
+        // Hedge beneath the limits, so that only the service call is timed and a hedge shares the slot of the request it hedges.
+        Translator translator = service;
+        if (hedgePercentile > 0 && hedgeBudgetPercent > 0) {
+            hedgingExecutor = Executors.newCachedThreadPool();
+            hedgingTranslator = new HedgingTranslator(translator, hedgingExecutor, hedgePercentile, hedgeBudgetPercent / 100);
+            hedgingTranslator.setTransport(transport);
+            hedgingTranslator.setRateLimiter(rateLimiter);
+            runStatistics.setHedgingTranslator(hedgingTranslator);
+            translator = hedgingTranslator;
+        }
+        final int maxConcurrency = batchesInFlight * Math.max(1, threads);
+        if (adaptiveConcurrency && maxConcurrency > 1) {
+            final ConcurrencyLimitDecorator limitDecorator = new ConcurrencyLimitDecorator(translator, new AdaptiveConcurrencyLimiter(1, 1, maxConcurrency));
+            runStatistics.setConcurrencyLimiter(limitDecorator.getLimiter());
+            translator = limitDecorator;
+        }
+        // Wait on the rate limit before taking a slot, and outside of the service's statistics so that waiting isn't counted as latency.
+        translator = new RateLimitDecorator(translator, rateLimiter, getMaxTextsPerRequest());
+        if (maxRetries > 0) {
+            final RetryingTranslator retrier = new RetryingTranslator(translator, maxRetries + 1,
+                    new CircuitBreaker(CIRCUIT_BREAKER_THRESHOLD, CIRCUIT_BREAKER_OPEN_MILLIS, CIRCUIT_BREAKER_MAX_OPEN_MILLIS));
+            runStatistics.setRetryingTranslator(retrier);
+            translator = retrier;
+        }
+        if (maxPackedLength > 0) {
+            final PackingTranslator packer = new PackingTranslator(translator, maxPackedLength);
+            runStatistics.setPackingTranslator(packer);
+            translator = packer;
+        }
+        if (useTranslationMemory) {
+            getLog().debug("translationMemoryFolder=" + translationMemoryFolder);
+            translationMemory = new TranslationMemory(translationMemoryFolder);
+            final TranslationMemoryDecorator memoryDecorator = new TranslationMemoryDecorator(translator, translationMemory, translationService);
+            runStatistics.setTranslationMemory(memoryDecorator);
+            translator = memoryDecorator;
+        }
+        if (translationCacheSize > 0) {
+            translationCache = new TranslationCacheDecorator(translator, translationCacheSize);
+            runStatistics.setTranslationCache(translationCache);
+            translator = translationCache;
+        }
+        return translator;
+    }
+
+    private Translator getServiceTranslator(HttpTransport transport) throws MojoExecutionException {
+
         // return a Translator based upon the translationService.
         if ("Bing".equals(translationService)) {
-            final BingTranslator translator = new BingTranslator();
+            final BingTranslator translator = new BingTranslator(transport);
             translator.setApiKey(apiKey);
-            //googleTranslator.setNrCallsBeforePause(maxCalls);
-            //googleTranslator.setMillisToPause(1000 * pauseSeconds);
             return  translator;
         } else if ("Google".equals(translationService)) {
-            final GoogleTranslator googleTranslator = new GoogleTranslator();
-            //googleTranslator.setNrCallsBeforePause(maxCalls);
-            //googleTranslator.setMillisToPause(1000 * pauseSeconds);
+            final GoogleTranslator googleTranslator = new GoogleTranslator(transport);
             googleTranslator.setApiKey(apiKey);
             return  googleTranslator;
         } else {
@@ -264,6 +846,13 @@ public final class LocalizeMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * @return maximum number of texts the translationService accepts in a single request.
+     */
+    private int getMaxTextsPerRequest() {
+        return "Bing".equals(translationService) ? BingTranslator.MAX_TEXTS_PER_REQUEST : GoogleTranslator.MAX_TEXTS_PER_REQUEST;
+    }
+
     private Collection<File> getFilesToProcess() {
         // TODO Find all the files to process.
         final Collection<File> files = new ArrayList<File>();
@@ -337,7 +926,7 @@ public final class LocalizeMojo extends AbstractMojo {
                 } else {
                     // perform translation
                     final EventProcessor eventProcessor = new EventProcessor(translator, sourceLanguage, destLanguage, msgKey, outputTerms);
-                    parser.parse(msgVal.getBytes(), eventProcessor);
+                    parser.parse(msgVal, eventProcessor);
                 }
             }
 
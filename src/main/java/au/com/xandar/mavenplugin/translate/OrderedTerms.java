@@ -35,6 +35,21 @@ public final class OrderedTerms {
         return props.put(key, value);
     }
 
+    /**
+     * Appends the value to any existing value of the key.
+     * <p/>
+     * Callers building a value from many pieces should collect them and append them once,
+     * as each call copies the existing value.
+     *
+     * @param key   the key whose value is to be extended.
+     * @param value the text to append to the value of <tt>key</tt>.
+     * @see #setProperty
+     */
+    public void appendProperty(String key, CharSequence value) {
+        final String currentValue = props.get(key);
+        props.put(key, (currentValue == null) ? value.toString() : currentValue + value);
+    }
+
     /**
      * Searches for the property with the specified key in this property list.
      * If the key is not found in this property list, the default property list,
@@ -65,6 +80,16 @@ public final class OrderedTerms {
         return (val == null) ? defaultValue : val;
     }
 
+    /**
+     * Removes the key and its value from this property list.
+     *
+     * @param key the key to remove.
+     * @return the value the key had, or <code>null</code> if it did not have one.
+     */
+    public String removeProperty(String key) {
+        return props.remove(key);
+    }
+
     /**
      * Returns an enumeration of all the keys in this property list, including
      * distinct keys in the default property list if a key of the same name has
@@ -0,0 +1,322 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import au.com.xandar.mavenplugin.translate.translator.AdaptiveConcurrencyLimiter;
+import au.com.xandar.mavenplugin.translate.translator.CallStatistics;
+import au.com.xandar.mavenplugin.translate.translator.HedgingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.HttpTransport;
+import au.com.xandar.mavenplugin.translate.translator.LatencyHistogram;
+import au.com.xandar.mavenplugin.translate.translator.PackingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.RateLimiter;
+import au.com.xandar.mavenplugin.translate.translator.RetryingTranslator;
+import au.com.xandar.mavenplugin.translate.translator.StatisticsDecorator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationCacheDecorator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationMemoryDecorator;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects the statistics of a run of the plugin and writes them as a JSON report,
+ * so that the cost and throughput of translation can be tracked from one build to the next.
+ * <p/>
+ * The report holds the calls made to the translation service for each language pair along with their latency,
+ * the time spent waiting on the rate limit, the concurrency reached, the hedges and retries, how many texts were packed together,
+ * the hits and misses of the translation cache and memory, and the time taken to transform each file.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+final class RunStatistics {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final long startNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<FileTime> fileTimes = new ConcurrentLinkedQueue<FileTime>();
+
+    private String translationType;
+    private String serviceName;
+    private StatisticsDecorator service;
+    private RateLimiter rateLimiter;
+    private HttpTransport transport;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private HedgingTranslator hedgingTranslator;
+    private RetryingTranslator retryingTranslator;
+    private PackingTranslator packingTranslator;
+    private TranslationCacheDecorator translationCache;
+    private TranslationMemoryDecorator translationMemory;
+
+    /**
+     * @param translationType   Type of file being translated.
+     */
+    void setTranslationType(String translationType) {
+        this.translationType = translationType;
+    }
+
+    /**
+     * @param serviceName   Name of the translation service.
+     */
+    void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * @param service   Records the calls made to the translation service, or null if no calls are made.
+     */
+    void setService(StatisticsDecorator service) {
+        this.service = service;
+    }
+
+    /**
+     * @param rateLimiter   Limits the rate of calls to the translation service.
+     */
+    void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param transport HttpTransport through which requests are sent to the translation service.
+     */
+    void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * @param concurrencyLimiter    Limiter of the requests in flight, or null if they are not limited.
+     */
+    void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * @param hedgingTranslator     HedgingTranslator in use, or null if requests are not hedged.
+     */
+    void setHedgingTranslator(HedgingTranslator hedgingTranslator) {
+        this.hedgingTranslator = hedgingTranslator;
+    }
+
+    /**
+     * @param retryingTranslator    RetryingTranslator in use, or null if requests are not retried.
+     */
+    void setRetryingTranslator(RetryingTranslator retryingTranslator) {
+        this.retryingTranslator = retryingTranslator;
+    }
+
+    /**
+     * @param packingTranslator PackingTranslator in use, or null if texts are not packed.
+     */
+    void setPackingTranslator(PackingTranslator packingTranslator) {
+        this.packingTranslator = packingTranslator;
+    }
+
+    /**
+     * @param translationCache  Translation cache in use, or null if there is none.
+     */
+    void setTranslationCache(TranslationCacheDecorator translationCache) {
+        this.translationCache = translationCache;
+    }
+
+    /**
+     * @param translationMemory Translation memory in use, or null if there is none.
+     */
+    void setTranslationMemory(TranslationMemoryDecorator translationMemory) {
+        this.translationMemory = translationMemory;
+    }
+
+    /**
+     * @param unit  TransformUnit that has been transformed.
+     * @param nanos Time taken to transform it in nanoseconds.
+     */
+    void recordFile(TransformUnit unit, long nanos) {
+        fileTimes.add(new FileTime(unit.getSourceFile().getPath(), unit.getTargetLanguage(), nanos));
+    }
+
+    /**
+     * Writes the report, replacing any existing report.
+     *
+     * @param file  File in which to write the report.
+     * @throws IOException if the report could not be written.
+     */
+    void write(File file) throws IOException {
+        final File parentFolder = file.getParentFile();
+        if (parentFolder != null && !parentFolder.exists() && !parentFolder.mkdirs()) {
+            throw new IOException("Could not create folder : " + parentFolder);
+        }
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+        try {
+            write(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * @param writer    Writer to which to write the report as JSON.
+     * @throws IOException if the report could not be written.
+     */
+    void write(Writer writer) throws IOException {
+        try {
+            writer.write(toJSON().toString(2));
+            writer.write("\n");
+        } catch (JSONException e) {
+            throw new IOException("Could not build the statistics report", e);
+        }
+    }
+
+    /**
+     * @return the report as a JSONObject.
+     * @throws JSONException if the report could not be built.
+     */
+    JSONObject toJSON() throws JSONException {
+        final JSONObject report = new JSONObject();
+        report.put("translationType", nullable(translationType));
+        report.put("wallTimeMillis", toMillis(System.nanoTime() - startNanos));
+        report.put("service", (serviceName == null) ? JSONObject.NULL : getService());
+
+        if (packingTranslator == null) {
+            report.put("packing", JSONObject.NULL);
+        } else {
+            final JSONObject packing = new JSONObject();
+            packing.put("packs", packingTranslator.getPacks());
+            packing.put("packedTexts", packingTranslator.getPackedTexts());
+            packing.put("fallbacks", packingTranslator.getFallbacks());
+            report.put("packing", packing);
+        }
+
+        if (translationCache == null) {
+            report.put("translationCache", JSONObject.NULL);
+        } else {
+            final JSONObject cache = new JSONObject();
+            cache.put("hits", translationCache.getHits());
+            cache.put("misses", translationCache.getMisses());
+            cache.put("coalesced", translationCache.getCoalesced());
+            cache.put("hitRatio", ratio(translationCache.getHits() + translationCache.getCoalesced(), translationCache.getMisses()));
+            report.put("translationCache", cache);
+        }
+
+        if (translationMemory == null) {
+            report.put("translationMemory", JSONObject.NULL);
+        } else {
+            final JSONObject memory = new JSONObject();
+            memory.put("hits", translationMemory.getHits());
+            memory.put("misses", translationMemory.getMisses());
+            memory.put("hitRatio", ratio(translationMemory.getHits(), translationMemory.getMisses()));
+            report.put("translationMemory", memory);
+        }
+
+        final JSONArray files = new JSONArray();
+        for (final FileTime fileTime : fileTimes) {
+            final JSONObject file = new JSONObject();
+            file.put("sourceFile", fileTime.sourceFile);
+            file.put("targetLanguage", nullable(fileTime.targetLanguage));
+            file.put("wallTimeMillis", toMillis(fileTime.nanos));
+            files.put(file);
+        }
+        report.put("files", files);
+        return report;
+    }
+
+    private JSONObject getService() throws JSONException {
+        final JSONObject service = new JSONObject();
+        service.put("name", serviceName);
+        service.put("rateLimitWaitMillis", (rateLimiter == null) ? 0 : toMillis(rateLimiter.getWaitNanos()));
+        if (transport != null) {
+            service.put("httpRequests", transport.getNrRequests());
+            service.put("bytesReceived", transport.getBytesReceived());
+        }
+        if (concurrencyLimiter != null) {
+            final JSONObject concurrency = new JSONObject();
+            concurrency.put("limit", concurrencyLimiter.getLimit());
+            concurrency.put("peakInFlight", concurrencyLimiter.getPeakInFlight());
+            concurrency.put("decreases", concurrencyLimiter.getDecreases());
+            concurrency.put("throttles", concurrencyLimiter.getThrottles());
+            service.put("concurrency", concurrency);
+        }
+        if (hedgingTranslator != null) {
+            final JSONObject hedging = new JSONObject();
+            hedging.put("requests", hedgingTranslator.getRequests());
+            hedging.put("hedges", hedgingTranslator.getHedges());
+            hedging.put("hedgeWins", hedgingTranslator.getHedgeWins());
+            hedging.put("overBudget", hedgingTranslator.getOverBudget());
+            service.put("hedging", hedging);
+        }
+        if (retryingTranslator != null) {
+            service.put("retries", retryingTranslator.getRetries());
+            service.put("circuitBreakerTrips", retryingTranslator.getCircuitBreaker().getTrips());
+        }
+
+        final JSONArray languagePairs = new JSONArray();
+        if (this.service != null) {
+            for (final Map.Entry<String, CallStatistics> entry : this.service.getStatistics().entrySet()) {
+                languagePairs.put(getCalls(entry.getKey(), entry.getValue()));
+            }
+        }
+        service.put("languagePairs", languagePairs);
+        return service;
+    }
+
+    private JSONObject getCalls(String languagePair, CallStatistics calls) throws JSONException {
+        final LatencyHistogram latency = calls.getLatency();
+        final JSONObject latencyMillis = new JSONObject();
+        latencyMillis.put("mean", microsToMillis(latency.getMeanMicros()));
+        latencyMillis.put("p50", microsToMillis(latency.getPercentileMicros(50)));
+        latencyMillis.put("p90", microsToMillis(latency.getPercentileMicros(90)));
+        latencyMillis.put("p99", microsToMillis(latency.getPercentileMicros(99)));
+        latencyMillis.put("max", microsToMillis(latency.getMaxMicros()));
+
+        final JSONObject pair = new JSONObject();
+        pair.put("languagePair", languagePair);
+        pair.put("calls", calls.getCalls());
+        pair.put("failures", calls.getFailures());
+        pair.put("texts", calls.getTexts());
+        pair.put("characters", calls.getCharacters());
+        pair.put("latencyMillis", latencyMillis);
+        return pair;
+    }
+
+    /**
+     * @return milliseconds, to the nearest microsecond.
+     */
+    private double toMillis(long nanos) {
+        return Math.round((double) nanos / 1000) / 1000.0;
+    }
+
+    private double microsToMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private double ratio(long hits, long misses) {
+        final long total = hits + misses;
+        return (total == 0) ? 0.0 : Math.round(10000.0 * hits / total) / 10000.0;
+    }
+
+    /**
+     * @return value, or JSONObject.NULL if it is null, as JSONObject drops a key whose value is null.
+     */
+    private static Object nullable(Object value) {
+        return (value == null) ? JSONObject.NULL : value;
+    }
+
+    /**
+     * Time taken to transform a file into a language.
+     */
+    private static final class FileTime {
+
+        private final String sourceFile;
+        private final String targetLanguage;
+        private final long nanos;
+
+        private FileTime(String sourceFile, String targetLanguage, long nanos) {
+            this.sourceFile = sourceFile;
+            this.targetLanguage = targetLanguage;
+            this.nanos = nanos;
+        }
+    }
+}
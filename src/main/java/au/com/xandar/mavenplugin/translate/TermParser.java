@@ -1,15 +1,14 @@
 package au.com.xandar.mavenplugin.translate;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-
 import org.apache.maven.plugin.logging.Log;
 
 /**
  * Parses a term by pushing snippets into an EventProcessor.
+ * <p/>
+ * The term is scanned by index and each snippet is reported as a range of the term, so nothing is copied
+ * or allocated while parsing. Supplementary characters (surrogate pairs) are treated as single characters.
  */
-final class TermParser {
+public final class TermParser {
 
     private final Log log;
 
@@ -24,142 +23,111 @@ final class TermParser {
     /**
      * Parse term, notifying the EventProcessor of content and markup that is found.
      *
-     * @param bytes             Array of byte to be translated.
+     * @param term              Text to be translated.
      * @param eventProcessor    EventProcessor to notify as content and mark up is found.
-     * @throws java.io.IOException if the stream could not be parsed.
      */
-    public void parse(byte[] bytes, EventProcessor eventProcessor) throws IOException {
-        final InputStream inputStream = new ByteArrayInputStream(bytes);
-        final StringBuilder sb = new StringBuilder();
-        int ch = 0;
-        while (ch != -1) {
-            if (!isMarkup(ch)) {
-                ch = inputStream.read();
-            }
-            if (ch == -1) {
-                break; // EOF so stop.
-            }
-
-            if ((char) ch == '$') {
-                onContentEnd(sb, eventProcessor);
-                ch = skipMarkup('$', ']', inputStream, eventProcessor);
-                continue;
-            }
-            if ((char) ch == '<') {
-                onContentEnd(sb, eventProcessor);
-                ch = skipMarkup('<', '>', inputStream, eventProcessor);
-                continue;
-            }
-            if ((char) ch == '{') {
-                onContentEnd(sb, eventProcessor);
-                ch = skipMarkup('{', '}', inputStream, eventProcessor);
-                continue;
-            }
-
-            // If the next character is content then add it to the String buffer.
-            // Else attempt to translate whatever is in the String buffer.
-            if (isContent(ch)) {
-                sb.append((char) ch);
+    public void parse(CharSequence term, EventProcessor eventProcessor) {
+        final int length = term.length();
+        int contentStart = 0;
+        int i = 0;
+        while (i < length) {
+            final char ch = term.charAt(i);
+            if (isMarkup(ch)) {
+                onContentEnd(term, contentStart, i, eventProcessor);
+                final int end = skipMarkup(term, i, getMarkupEnd(ch));
+                eventProcessor.foundMarkup(term, i, end);
+                i = end;
+                contentStart = end;
+            } else if (isContent(term, i)) {
+                i += Character.charCount(Character.codePointAt(term, i));
             } else {
-                onContentEnd(sb, eventProcessor);
-                ch = skipToContent(ch, inputStream, eventProcessor);
-                if (ch != -1 && !isMarkup(ch)) {
-                    sb.append((char) ch);
-                }
+                onContentEnd(term, contentStart, i, eventProcessor);
+                final int end = skipToContent(term, i);
+                eventProcessor.foundMarkup(term, i, end);
+                i = end;
+                contentStart = end;
             }
         }
-        onContentEnd(sb, eventProcessor);
-        inputStream.close();
+        onContentEnd(term, contentStart, length, eventProcessor);
+        eventProcessor.flush();
     }
 
     /**
      * Called when we have reached the end of a block of content.
      * <p>
      *     Notifies the EventProcessor of a new piece of content to add to the translation.
+     *     The EventProcessor translates all of the content at once when the term has been parsed.
      * </p>
-     * @param sb                StringBuilder holding the content that has been found.
+     * @param term              Term being parsed.
+     * @param start             Index of the start of the content.
+     * @param end               Index following the end of the content.
      * @param eventProcessor    EventProcessor to notify
-     * @throws IOException if the translation cannot be processed.
      */
-    private void onContentEnd(StringBuilder sb, EventProcessor eventProcessor) throws IOException {
-        if (sb.length() > 0) {
-            final String content = sb.toString();
-            final String translatedText = eventProcessor.foundContent(content);
-            getLog().debug("\nBEFORE[" + content + "]");
-            getLog().debug("AFTER[" + translatedText + "]");
-            sb.setLength(0);
+    private void onContentEnd(CharSequence term, int start, int end, EventProcessor eventProcessor) {
+        if (end > start) {
+            eventProcessor.foundContent(term, start, end);
+            if (getLog().isDebugEnabled()) {
+                getLog().debug("\nCONTENT[" + term.subSequence(start, end) + "]");
+            }
         }
     }
 
     /**
      * Skip to the next block of content or mark up.
      *
-     * @param ch                Current character.
-     * @param inputStream       InputStream from which to read characters.
-     * @param eventProcessor    EventProcessor to notify of non-content that was read.
-     * @return Character that was last read.
-     * @throws IOException if a character failed to be read.
+     * @param term  Term being parsed.
+     * @param start Index of the first character that is neither content nor mark up.
+     * @return index of the next content or mark up character, or the length of the term.
      */
-    private int skipToContent(int ch, InputStream inputStream, EventProcessor eventProcessor) throws IOException {
-        final StringBuilder sb = new StringBuilder();
-        sb.append((char) ch);
-        while (true) {
-            ch = inputStream.read();
-            if (ch == -1) {
-                break;
-            }
-            if (isContent(ch) || isMarkup(ch)) {
-                break;
-            } else {
-                sb.append((char) ch);
-            }
+    private int skipToContent(CharSequence term, int start) {
+        int i = start + 1;
+        while (i < term.length() && !isMarkup(term.charAt(i)) && !isContent(term, i)) {
+            i++;
         }
-        eventProcessor.foundMarkup(sb.toString());
-        return ch;
+        return i;
     }
 
     /**
      * Skips all characters until the end (mark up) character is found.
      *
-     * @param start             Current character.
-     * @param end               Character at which to stop reading, ie the end of the mark up.
-     * @param inputStream       InputStream from which to read characters.
-     * @param eventProcessor    EventProcessor to notify about the mark up that was found.
-     * @return the last character read.
-     * @throws IOException if a character failed to be read.
+     * @param term  Term being parsed.
+     * @param start Index of the character starting the mark up.
+     * @param end   Character at which to stop reading, ie the end of the mark up.
+     * @return index following the end character, or the length of the term if there is no end character.
      */
-    private int skipMarkup(int start, int end, InputStream inputStream, EventProcessor eventProcessor) throws IOException {
-        final StringBuilder sb = new StringBuilder();
-        sb.append((char) start);
-        int ch;
-        while (true) {
-            ch = inputStream.read();
-            if (ch == -1) {
-                break;
-            }
-            sb.append((char) ch);
-            if (ch == end) {
-                break;
+    private int skipMarkup(CharSequence term, int start, char end) {
+        for (int i = start + 1; i < term.length(); i++) {
+            if (term.charAt(i) == end) {
+                return i + 1;
             }
         }
-        eventProcessor.foundMarkup(sb.toString());
-        return ch;
+        return term.length();
     }
 
     /**
      * Also allow diacritics.
      *
-     * @param c Character to test as content.
+     * @param term  Term being parsed.
+     * @param index Index of the character to test as content.
      * @return true if the character is determined to be content.
      */
-    private boolean isContent(int c) {
-        if (Character.isLetterOrDigit(c)) {
+    private boolean isContent(CharSequence term, int index) {
+        final char c = term.charAt(index);
+        if (c == ' ' || c == '\t' || c == '\'' || c == ',' || c == '.' || c == '?' || c == '!') {
             return true;
         }
-        return (c == ' ' || c == '\t' || c == '\'' || c == ',' || c == '.' || c == '?' || c == '!');
+        return Character.isLetterOrDigit(Character.codePointAt(term, index));
     }
 
-    private boolean isMarkup(int c) {
+    private boolean isMarkup(char c) {
         return (c == '{' || c == '<' || c == '$');
     }
-}
\ No newline at end of file
+
+    private char getMarkupEnd(char markupStart) {
+        switch (markupStart) {
+            case '$' : return ']';
+            case '<' : return '>';
+            default : return '}';
+        }
+    }
+}
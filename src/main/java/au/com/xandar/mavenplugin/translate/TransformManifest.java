@@ -0,0 +1,169 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Records the content hash of the source file, plugin configuration and output file of each transformation
+ * so that transformations whose inputs and output are unchanged can be skipped.
+ * <p/>
+ * The manifest is persisted as a properties file keyed by the path of each output file.
+ */
+final class TransformManifest {
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+    private static final char SEPARATOR = ';';
+
+    private final File manifestFile;
+    private final String configurationHash;
+    private final Properties entries = new Properties();
+
+    /**
+     * @param manifestFile      File in which the manifest is persisted.
+     * @param configuration     Description of the configuration that affects the output of every transformation.
+     */
+    TransformManifest(File manifestFile, String configuration) {
+        this.manifestFile = manifestFile;
+        this.configurationHash = hash(configuration);
+    }
+
+    /**
+     * Loads the manifest from its file, if it exists.
+     *
+     * @throws IOException if the manifest exists but could not be read.
+     */
+    void load() throws IOException {
+        if (!manifestFile.exists()) {
+            return;
+        }
+        final InputStream stream = new FileInputStream(manifestFile);
+        try {
+            entries.load(stream);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Saves the manifest to its file.
+     *
+     * @throws IOException if the manifest could not be written.
+     */
+    void save() throws IOException {
+        final File parentFolder = manifestFile.getParentFile();
+        if (!parentFolder.exists() && !parentFolder.mkdirs()) {
+            throw new IOException("Could not create folder : " + parentFolder);
+        }
+        final OutputStream stream = new FileOutputStream(manifestFile);
+        try {
+            entries.store(stream, "translator-maven-plugin manifest");
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * @param sourceHash    Hash of the source file, as returned by {@link #hash(File)}.
+     * @param targetFile    Output file of the transformation.
+     * @return true if the target file was generated from the same source and configuration and hasn't changed since.
+     * @throws IOException if the target file could not be read.
+     */
+    boolean isUpToDate(String sourceHash, File targetFile) throws IOException {
+        final String entry = entries.getProperty(getKey(targetFile));
+        if (entry == null || !targetFile.exists()) {
+            return false;
+        }
+        return entry.equals(getEntry(sourceHash, hash(targetFile)));
+    }
+
+    /**
+     * @param targetFile    Output file of the transformation.
+     * @return true if the target file was last generated with the current configuration.
+     */
+    boolean hasSameConfiguration(File targetFile) {
+        final String entry = entries.getProperty(getKey(targetFile));
+        return (entry != null) && entry.contains(SEPARATOR + configurationHash + SEPARATOR);
+    }
+
+    /**
+     * Records that the target file has been generated from the source.
+     *
+     * @param sourceHash    Hash of the source file, as returned by {@link #hash(File)}.
+     * @param targetFile    Output file of the transformation.
+     * @throws IOException if the target file could not be read.
+     */
+    void update(String sourceHash, File targetFile) throws IOException {
+        entries.setProperty(getKey(targetFile), getEntry(sourceHash, hash(targetFile)));
+    }
+
+    /**
+     * @param targetFile    Output file of a transformation.
+     * @return path of the target file relative to the manifest so that the manifest survives the project being moved.
+     */
+    private String getKey(File targetFile) {
+        final String manifestFolderPath = manifestFile.getAbsoluteFile().getParent();
+        final String targetFilePath = targetFile.getAbsolutePath();
+        final String path = targetFilePath.startsWith(manifestFolderPath + File.separator)
+                ? targetFilePath.substring(manifestFolderPath.length() + 1)
+                : targetFilePath;
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private String getEntry(String sourceHash, String targetHash) {
+        return sourceHash + SEPARATOR + configurationHash + SEPARATOR + targetHash;
+    }
+
+    /**
+     * @param file  File to hash.
+     * @return hex encoded hash of the contents of the file.
+     * @throws IOException if the file could not be read.
+     */
+    static String hash(File file) throws IOException {
+        final MessageDigest digest = newDigest();
+        final InputStream stream = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            stream.close();
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String hash(String text) {
+        final MessageDigest digest = newDigest();
+        for (int i = 0; i < text.length(); i++) {
+            final char ch = text.charAt(i);
+            digest.update((byte) (ch >> 8));
+            digest.update((byte) ch);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No " + DIGEST_ALGORITHM + " MessageDigest available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
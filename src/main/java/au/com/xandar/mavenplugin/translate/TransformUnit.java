@@ -0,0 +1,40 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.io.File;
+
+/**
+ * Represents the transformation of a single source file into a single target language.
+ */
+final class TransformUnit {
+
+    private final File sourceFile;
+    private final String sourceHash;
+    private final File targetFile;
+    private final String targetLanguage;
+
+    TransformUnit(File sourceFile, String sourceHash, File targetFile, String targetLanguage) {
+        this.sourceFile = sourceFile;
+        this.sourceHash = sourceHash;
+        this.targetFile = targetFile;
+        this.targetLanguage = targetLanguage;
+    }
+
+    public File getSourceFile() {
+        return sourceFile;
+    }
+
+    /**
+     * @return hash of the contents of the source file, or null if the build is not incremental.
+     */
+    public String getSourceHash() {
+        return sourceHash;
+    }
+
+    public File getTargetFile() {
+        return targetFile;
+    }
+
+    public String getTargetLanguage() {
+        return targetLanguage;
+    }
+}
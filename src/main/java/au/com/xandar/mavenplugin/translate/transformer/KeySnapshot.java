@@ -0,0 +1,74 @@
+package au.com.xandar.mavenplugin.translate.transformer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Snapshot of the source text of each key of a resource at the time it was translated.
+ * <p/>
+ * Comparing the current source against the snapshot taken when a target file was generated tells a
+ * ResourceTransformer which keys have been added or changed and so need translating,
+ * and which keys can be copied from the existing target file.
+ */
+public final class KeySnapshot {
+
+    private final Properties sourceTexts = new Properties();
+
+    /**
+     * @param file  File from which to load a snapshot.
+     * @return KeySnapshot loaded from the file, or null if the file doesn't exist.
+     * @throws IOException if the file could not be read.
+     */
+    public static KeySnapshot load(File file) throws IOException {
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        final KeySnapshot snapshot = new KeySnapshot();
+        final InputStream stream = new FileInputStream(file);
+        try {
+            snapshot.sourceTexts.load(stream);
+        } finally {
+            stream.close();
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param file  File in which to save this snapshot.
+     * @throws IOException if the file could not be written.
+     */
+    public void save(File file) throws IOException {
+        final File parentFolder = file.getParentFile();
+        if (!parentFolder.exists() && !parentFolder.mkdirs()) {
+            throw new IOException("Could not create folder : " + parentFolder);
+        }
+        final OutputStream stream = new FileOutputStream(file);
+        try {
+            sourceTexts.store(stream, null);
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * @param key           Key of the term.
+     * @param sourceText    Source text of the term.
+     */
+    public void put(String key, String sourceText) {
+        sourceTexts.setProperty(key, sourceText);
+    }
+
+    /**
+     * @param key           Key of the term.
+     * @param sourceText    Current source text of the term.
+     * @return true if the term had the same source text when this snapshot was taken.
+     */
+    public boolean isUnchanged(String key, String sourceText) {
+        return sourceText.equals(sourceTexts.getProperty(key));
+    }
+}
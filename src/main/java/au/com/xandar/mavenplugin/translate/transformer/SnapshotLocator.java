@@ -0,0 +1,15 @@
+package au.com.xandar.mavenplugin.translate.transformer;
+
+import java.io.File;
+
+/**
+ * Responsible for locating the {@link KeySnapshot} of the source that was used to generate a target file.
+ */
+public interface SnapshotLocator {
+
+    /**
+     * @param targetFile    File generated by a ResourceTransformer.
+     * @return File in which to keep the KeySnapshot of the source from which the target file was generated.
+     */
+    public File getSnapshotFile(File targetFile);
+}
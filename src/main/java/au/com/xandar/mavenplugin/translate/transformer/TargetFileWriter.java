@@ -0,0 +1,74 @@
+package au.com.xandar.mavenplugin.translate.transformer;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+/**
+ * Writes a target file through a temporary file that only replaces the target once it has been completely written.
+ * <p/>
+ * So a translated file can be written as it is translated without ever being held in memory as a whole,
+ * and a failed transform leaves the previous target untouched.
+ */
+public final class TargetFileWriter {
+
+    private final File targetFile;
+    private final File tempFile;
+    private final BufferedWriter writer;
+
+    /**
+     * Creates any folders required for the target file and opens a temporary file beside it.
+     *
+     * @param targetFile    File to be written.
+     * @param encoding      Encoding in which to write the file.
+     * @throws IOException if the temporary file could not be created.
+     */
+    public TargetFileWriter(File targetFile, String encoding) throws IOException {
+        final File parentFolder = targetFile.getParentFile();
+        if (!parentFolder.exists() && !parentFolder.mkdirs()) {
+            throw new IOException("Could not create folder : " + parentFolder);
+        }
+
+        this.targetFile = targetFile;
+        this.tempFile = new File(targetFile.getPath() + ".tmp");
+        this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), encoding));
+    }
+
+    /**
+     * @return Writer with which to write the content of the target file.
+     */
+    public BufferedWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Closes the temporary file and moves it into place as the target file.
+     *
+     * @throws IOException if the target file could not be replaced.
+     */
+    public void commit() throws IOException {
+        writer.close();
+
+        if (targetFile.exists() && !targetFile.delete()) {
+            tempFile.delete();
+            throw new IOException("Could not replace " + targetFile);
+        }
+        if (!tempFile.renameTo(targetFile)) {
+            throw new IOException("Could not rename " + tempFile + " to " + targetFile);
+        }
+    }
+
+    /**
+     * Closes and deletes the temporary file, leaving the target file untouched.
+     */
+    public void discard() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // Nothing to do, the file is being discarded.
+        }
+        tempFile.delete();
+    }
+}
@@ -0,0 +1,152 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Receives notifications of Android String XML elements and separates the mark up, which is copied as is,
+ * from the text of each string and item element, which requires translation.
+ * <p/>
+ * Subclasses decide what to do with each, either writing the document as it is parsed or keeping it for later.
+ */
+abstract class AbstractAndroidStringsHandler extends DefaultHandler implements LexicalHandler {
+
+    private static final String LINE_END = "\n";
+
+    private final StringBuilder textToTranslate = new StringBuilder();
+    private boolean translateThisText;
+
+    private final StringKeyTracker keyTracker = new StringKeyTracker();
+
+    /**
+     * @param markup    Mark up that follows everything received so far.
+     * @throws SAXException if the mark up could not be written.
+     */
+    protected abstract void addMarkup(CharSequence markup) throws SAXException;
+
+    /**
+     * @param ch        Characters of mark up that follows everything received so far.
+     * @param start     Start of the mark up in ch.
+     * @param length    Number of characters of mark up.
+     * @throws SAXException if the mark up could not be written.
+     */
+    protected abstract void addMarkup(char[] ch, int start, int length) throws SAXException;
+
+    /**
+     * @param key           Key of the string containing the text, or null if it has none.
+     * @param sourceText    Text of a string or item element as it appears in the source, which may be modified once read.
+     * @throws SAXException if the text could not be handled.
+     */
+    protected abstract void addText(String key, StringBuilder sourceText) throws SAXException;
+
+    @Override
+    public void startDocument() throws SAXException {
+        super.startDocument();
+        addMarkup("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        addMarkup(LINE_END);
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        super.endDocument();
+        addMarkup(LINE_END);
+    }
+
+    @Override
+    public void startElement(String uri, String simpleName, String qualifiedName, Attributes attributes) throws SAXException {
+        super.startElement(uri, simpleName, qualifiedName, attributes);
+        final String elementName = "".equals(simpleName) ? qualifiedName : simpleName;
+        addMarkup("<");
+        addMarkup(elementName);
+        if (attributes != null) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final String aName = ("".equals(attributes.getLocalName(i))) ? attributes.getQName(i) : attributes.getLocalName(i);
+                addMarkup(" ");
+                addMarkup(aName);
+                addMarkup("=\"");
+                addMarkup(attributes.getValue(i));
+                addMarkup("\"");
+            }
+        }
+        addMarkup(">");
+        textToTranslate.setLength(0); // reset textToTranslate.
+
+        // Switch on translation for the next piece of text if we just started a string or item element.
+        translateThisText = keyTracker.startElement(elementName, attributes);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        super.characters(ch, start, length);
+        if (translateThisText) {
+            textToTranslate.append(ch, start, length);
+        } else {
+            addMarkup(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String simpleName, String qualifiedName) throws SAXException {
+        super.endElement(uri, simpleName, qualifiedName);
+
+        if (translateThisText) {
+            //PrintHelper.printChars(textToTranslate);
+            addText(keyTracker.getCurrentKey(), textToTranslate);
+            translateThisText = false;
+        }
+
+        final String elementName = "".equals(simpleName) ? qualifiedName : simpleName;
+        addMarkup("</");
+        addMarkup(elementName);
+        addMarkup(">");
+        //System.out.println("endElement=" + elementName);
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        super.ignorableWhitespace(ch, start, length);
+        addMarkup(ch, start, length);
+    }
+
+    @Override
+    public void skippedEntity(String name) throws SAXException {
+        super.skippedEntity(name);
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+        super.processingInstruction(target, data);
+    }
+
+    public void startDTD(String name, String publicId, String systemId) throws SAXException {
+        // do nothing
+    }
+
+    public void endDTD() throws SAXException {
+        // do nothing
+    }
+
+    public void startEntity(String name) throws SAXException {
+        // do nothing
+    }
+
+    public void endEntity(String name) throws SAXException {
+        // do nothing
+    }
+
+    public void startCDATA() throws SAXException {
+        // do nothing
+    }
+
+    public void endCDATA() throws SAXException {
+        // do nothing
+    }
+
+    public void comment(char[] ch, int start, int length) throws SAXException {
+        addMarkup("<!--");
+        addMarkup(ch, start, length);
+        addMarkup("-->");
+    }
+}
@@ -1,159 +1,247 @@
 package au.com.xandar.mavenplugin.translate.transformer.android;
 
-import au.com.xandar.mavenplugin.translate.translator.Translator;
-import org.xml.sax.Attributes;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import au.com.xandar.mavenplugin.translate.transformer.KeySnapshot;
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationException;
 import org.xml.sax.SAXException;
-import org.xml.sax.ext.LexicalHandler;
-import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * One use class tat receives notifications of Android String XML elements, translates those that require it
- * and accumulates a translated XML document which can be retrieved via {@link #getTranslatedDocument()}.
+ * and writes the translated XML document to a Writer as it goes.
+ * <p/>
+ * Text requiring translation is queued and translated in batches. Each batch is handed to the AsyncTranslator
+ * and parsing continues while it is being translated, with up to maxBatchesInFlight batches outstanding at once.
+ * Until a batch has been translated any following mark up is held after the text it follows,
+ * and batches are written in order as they complete. So only the queued and in flight batches are held in memory,
+ * never the whole document.
  */
-final class AndroidStringsHandler extends DefaultHandler implements LexicalHandler {
+final class AndroidStringsHandler extends AbstractAndroidStringsHandler {
 
     private final CharEscaper charEscaper = new CharEscaper();
-    private static final char LINE_END = '\n';
 
-    private final StringBuilder document = new StringBuilder();
-    private final StringBuilder textToTranslate = new StringBuilder();
-    private boolean translateThisText;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Writer document;
+
+    // Text queued for translation, each followed by the mark up that comes after it in the document.
+    private final List<String> pendingTexts = new ArrayList<String>();
+    private final List<StringBuilder> pendingMarkup = new ArrayList<StringBuilder>();
+
+    // Mark up following the last text waiting on translation, or null if output can be written straight to the document.
+    private StringBuilder heldMarkup;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Batches that have been submitted for translation, in document order.
+    private final LinkedList<Batch> batchesInFlight = new LinkedList<Batch>();
+    private int maxBatchesInFlight = 1;
+
+    private final KeySnapshot sourceSnapshot = new KeySnapshot();
+    private KeySnapshot previousSourceSnapshot;
+    private Map<String, String> previousTranslations;
 
     private final String sourceLanguage;
     private final String targetLanguage;
-    private final Translator translator;
+    private final AsyncTranslator translator;
 
-    AndroidStringsHandler(Translator translator, String sourceLanguage, String targetLanguage) {
+    AndroidStringsHandler(AsyncTranslator translator, String sourceLanguage, String targetLanguage, Writer document) {
         this.translator = translator;
+        this.document = document;
         this.sourceLanguage = sourceLanguage;
         this.targetLanguage = targetLanguage;
     }
 
     /**
-     * @return the translated document.
+     * @param batchSize Maximum number of texts to translate at once.
      */
-    public String getTranslatedDocument() {
-        return document.toString();
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
     }
 
-    @Override
-    public void startDocument() throws SAXException {
-        super.startDocument();
-        document.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-        document.append(LINE_END);
+    /**
+     * @param maxBatchesInFlight    Maximum number of batches to have waiting on translation at once.
+     */
+    void setMaxBatchesInFlight(int maxBatchesInFlight) {
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Allows the translations from a previous run to be reused for any key whose source text hasn't changed.
+     *
+     * @param previousSourceSnapshot    Snapshot of the source text when the previous translations were made.
+     * @param previousTranslations      Translated text of each key from the previous run.
+     */
+    void setPreviousTranslations(KeySnapshot previousSourceSnapshot, Map<String, String> previousTranslations) {
+        this.previousSourceSnapshot = previousSourceSnapshot;
+        this.previousTranslations = previousTranslations;
+    }
+
+    /**
+     * @return snapshot of the source text of every key in the document.
+     */
+    public KeySnapshot getSourceSnapshot() {
+        return sourceSnapshot;
     }
 
     @Override
     public void endDocument() throws SAXException {
         super.endDocument();
-        document.append(LINE_END);
+        submitPendingText();
+        addTranslatedBatches(0);
     }
 
     @Override
-    public void startElement(String uri, String simpleName, String qualifiedName, Attributes attributes) throws SAXException {
-        super.startElement(uri, simpleName, qualifiedName, attributes);
-        final String elementName = "".equals(simpleName) ? qualifiedName : simpleName;
-        document.append("<");
-        document.append(elementName);
-        if (attributes != null) {
-            for (int i = 0; i < attributes.getLength(); i++) {
-                final String aName = ("".equals(attributes.getLocalName(i))) ? attributes.getQName(i) : attributes.getLocalName(i);
-                document.append(" ");
-                document.append(aName);
-                document.append("=\"");
-                document.append(attributes.getValue(i));
-                document.append("\"");
-            }
+    protected void addText(String key, StringBuilder sourceText) throws SAXException {
+        // Perform translation if required, unless the source is unchanged since it was last translated.
+        final String text = sourceText.toString();
+        if (key != null) {
+            sourceSnapshot.put(key, text);
+        }
+        if (isPreviouslyTranslated(key, text)) {
+            addMarkup(previousTranslations.get(key));
+        } else {
+            queueTranslation(sourceText);
         }
-        document.append(">");
-        textToTranslate.setLength(0); // reset textToTranslate.
-
-        // Switch on translation for the next piece of text if we just started a string or item element.
-        translateThisText = "string".equals(elementName) || "item".equals(elementName);
     }
 
-    @Override
-    public void characters(char[] ch, int start, int length) throws SAXException {
-        super.characters(ch, start, length);
-        if (translateThisText) {
-            textToTranslate.append(ch, start, length);
-        } else {
-            document.append(ch, start, length);
+    /**
+     * Queues the text for translation, submitting the queued texts for translation once there is a full batch.
+     *
+     * @param text  Text to translate.
+     */
+    private void queueTranslation(StringBuilder text) throws SAXException {
+        pendingTexts.add(charEscaper.removeBackslashes(text));
+        heldMarkup = new StringBuilder();
+        pendingMarkup.add(heldMarkup);
+
+        if (pendingTexts.size() >= batchSize) {
+            submitPendingText();
+            addTranslatedBatches(maxBatchesInFlight);
         }
     }
 
-    private CharSequence getTranslatedText(StringBuilder text) {
+    /**
+     * Submits all of the queued texts for translation as a single batch.
+     */
+    private void submitPendingText() {
+        if (pendingTexts.isEmpty()) {
+            return;
+        }
 
-        charEscaper.removeBackslashes(text);
-        final StringBuilder translatedText = new StringBuilder(translator.translate(text, sourceLanguage, targetLanguage));
-        charEscaper.addBackslashes(translatedText);
+        final List<String> texts = new ArrayList<String>(pendingTexts);
+        final Future<List<String>> translations = translator.translateAllAsync(texts, sourceLanguage, targetLanguage);
+        batchesInFlight.add(new Batch(translations, new ArrayList<StringBuilder>(pendingMarkup)));
 
-        return translatedText;
+        pendingTexts.clear();
+        pendingMarkup.clear();
     }
 
-    @Override
-    public void endElement(String uri, String simpleName, String qualifiedName) throws SAXException {
-        super.endElement(uri, simpleName, qualifiedName);
-
-        if (translateThisText) {
-            //PrintHelper.printChars(textToTranslate);
-
-            // Perform translation if required.
-            final CharSequence translatedText = getTranslatedText(textToTranslate);
-            document.append(translatedText);
-            translateThisText = false;
+    /**
+     * Writes each batch that has been translated, and the mark up that follows its texts, to the document.
+     * Batches are written in document order, so a completed batch waits for any batch before it.
+     *
+     * @param maxRemaining  Wait for translations until no more than this many batches remain in flight.
+     * @throws SAXException if the document could not be written.
+     */
+    private void addTranslatedBatches(int maxRemaining) throws SAXException {
+        while (!batchesInFlight.isEmpty()) {
+            final Batch batch = batchesInFlight.getFirst();
+            if (!batch.translations.isDone() && batchesInFlight.size() <= maxRemaining) {
+                break;
+            }
+            batchesInFlight.removeFirst();
+
+            final List<String> translations = getTranslations(batch);
+            try {
+                for (int i = 0; i < translations.size(); i++) {
+                    document.write(charEscaper.addBackslashes(translations.get(i)));
+                    document.append(batch.markup.get(i));
+                }
+            } catch (IOException e) {
+                throw new SAXException(e);
+            }
         }
 
-        final String elementName = "".equals(simpleName) ? qualifiedName : simpleName;
-        document.append("</");
-        document.append(elementName);
-        document.append(">");
-        //System.out.println("endElement=" + elementName);
-    }
-
-    @Override
-    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
-        super.ignorableWhitespace(ch, start, length);
-        document.append(ch, start, length);
+        if (batchesInFlight.isEmpty() && pendingTexts.isEmpty()) {
+            heldMarkup = null;
+        }
     }
 
     @Override
-    public void skippedEntity(String name) throws SAXException {
-        super.skippedEntity(name);
+    protected void addMarkup(CharSequence text) throws SAXException {
+        if (heldMarkup != null) {
+            heldMarkup.append(text);
+            return;
+        }
+        try {
+            document.append(text);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
     }
 
     @Override
-    public void processingInstruction(String target, String data) throws SAXException {
-        super.processingInstruction(target, data);
-    }
-
-    public void startDTD(String name, String publicId, String systemId) throws SAXException {
-        // do nothing
+    protected void addMarkup(char[] ch, int start, int length) throws SAXException {
+        if (heldMarkup != null) {
+            heldMarkup.append(ch, start, length);
+            return;
+        }
+        try {
+            document.write(ch, start, length);
+        } catch (IOException e) {
+            throw new SAXException(e);
+        }
     }
 
-    public void endDTD() throws SAXException {
-        // do nothing
+    private List<String> getTranslations(Batch batch) {
+        try {
+            return batch.translations.get();
+        } catch (InterruptedException e) {
+            cancelBatchesInFlight();
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for translation", e);
+        } catch (ExecutionException e) {
+            cancelBatchesInFlight();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TranslationException("Could not translate", e.getCause());
+        }
     }
 
-    public void startEntity(String name) throws SAXException {
-        // do nothing
+    private void cancelBatchesInFlight() {
+        for (final Batch batch : batchesInFlight) {
+            batch.translations.cancel(true);
+        }
+        batchesInFlight.clear();
     }
 
-    public void endEntity(String name) throws SAXException {
-        // do nothing
+    private boolean isPreviouslyTranslated(String key, String sourceText) {
+        return (key != null)
+                && (previousSourceSnapshot != null)
+                && previousSourceSnapshot.isUnchanged(key, sourceText)
+                && previousTranslations.containsKey(key);
     }
 
-    public void startCDATA() throws SAXException {
-        // do nothing
-    }
+    /**
+     * Texts submitted for translation together, along with the mark up that follows each text.
+     */
+    private static final class Batch {
 
-    public void endCDATA() throws SAXException {
-        // do nothing
-    }
+        private final Future<List<String>> translations;
+        private final List<StringBuilder> markup;
 
-    public void comment(char[] ch, int start, int length) throws SAXException {
-        document.append("<!--");
-        document.append(ch, start, length);
-        document.append("-->");
+        private Batch(Future<List<String>> translations, List<StringBuilder> markup) {
+            this.translations = translations;
+            this.markup = markup;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Responsible for reading the text of each string and item in an Android strings file, as it appears in the file.
+ */
+final class AndroidStringsReader extends DefaultHandler {
+
+    private final StringKeyTracker keyTracker = new StringKeyTracker();
+    private final Map<String, String> texts = new HashMap<String, String>();
+    private final StringBuilder text = new StringBuilder();
+    private boolean readingText;
+
+    /**
+     * @param file  Android strings file to read.
+     * @return Map of each key (as determined by {@link StringKeyTracker}) to its text.
+     * @throws IOException if the file could not be read.
+     */
+    public static Map<String, String> read(File file) throws IOException {
+        final AndroidStringsReader reader = new AndroidStringsReader();
+        try {
+            SAXParserFactory.newInstance().newSAXParser().parse(file, reader);
+        } catch (ParserConfigurationException e) {
+            throw new IOException("Could not create SaxParser", e);
+        } catch (SAXException e) {
+            throw new IOException(e);
+        }
+        return reader.texts;
+    }
+
+    @Override
+    public void startElement(String uri, String simpleName, String qualifiedName, Attributes attributes) throws SAXException {
+        final String elementName = "".equals(simpleName) ? qualifiedName : simpleName;
+        readingText = keyTracker.startElement(elementName, attributes);
+        text.setLength(0);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (readingText) {
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String simpleName, String qualifiedName) throws SAXException {
+        if (readingText) {
+            texts.put(keyTracker.getCurrentKey(), text.toString());
+            readingText = false;
+        }
+    }
+}
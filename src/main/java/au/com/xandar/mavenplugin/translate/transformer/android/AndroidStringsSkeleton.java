@@ -0,0 +1,90 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.io.File;
+import java.util.List;
+
+import au.com.xandar.mavenplugin.translate.transformer.KeySnapshot;
+
+/**
+ * An Android strings document parsed into the mark up that doesn't get translated and the slots for the texts that do.
+ * <p/>
+ * A source file is parsed into a skeleton once and each target language is then written by filling in its slots,
+ * so a source translated into many languages is only parsed once.
+ * The skeleton is never modified once built and so can be shared by the threads translating each language.
+ */
+final class AndroidStringsSkeleton {
+
+    private final List<String> markup;
+    private final List<String> keys;
+    private final List<String> sourceTexts;
+    private final List<String> textsToTranslate;
+
+    private final long sourceLastModified;
+    private final long sourceLength;
+
+    /**
+     * @param markup            Mark up preceding each slot, followed by the mark up after the last slot.
+     * @param keys              Key of the text in each slot, or null if it has no key.
+     * @param sourceTexts       Text in each slot as it appears in the source file.
+     * @param textsToTranslate  Text in each slot with its back slashes removed, ready for translation.
+     * @param sourceLastModified    Last modified time of the source file when it was parsed.
+     * @param sourceLength          Length of the source file when it was parsed.
+     */
+    AndroidStringsSkeleton(List<String> markup, List<String> keys, List<String> sourceTexts, List<String> textsToTranslate,
+                           long sourceLastModified, long sourceLength) {
+        this.markup = markup;
+        this.keys = keys;
+        this.sourceTexts = sourceTexts;
+        this.textsToTranslate = textsToTranslate;
+        this.sourceLastModified = sourceLastModified;
+        this.sourceLength = sourceLength;
+    }
+
+    /**
+     * @return number of translatable texts in the document.
+     */
+    public int getNrSlots() {
+        return keys.size();
+    }
+
+    /**
+     * @param slot  Index of a slot, or {@link #getNrSlots()} for the mark up after the last slot.
+     * @return mark up preceding the slot.
+     */
+    public String getMarkup(int slot) {
+        return markup.get(slot);
+    }
+
+    public String getKey(int slot) {
+        return keys.get(slot);
+    }
+
+    public String getSourceText(int slot) {
+        return sourceTexts.get(slot);
+    }
+
+    public String getTextToTranslate(int slot) {
+        return textsToTranslate.get(slot);
+    }
+
+    /**
+     * @return snapshot of the source text of every key in the document.
+     */
+    public KeySnapshot getSourceSnapshot() {
+        final KeySnapshot snapshot = new KeySnapshot();
+        for (int i = 0; i < keys.size(); i++) {
+            if (keys.get(i) != null) {
+                snapshot.put(keys.get(i), sourceTexts.get(i));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param sourceFile    File from which this skeleton was parsed.
+     * @return true if the file doesn't appear to have changed since it was parsed.
+     */
+    public boolean isCurrent(File sourceFile) {
+        return (sourceFile.lastModified() == sourceLastModified) && (sourceFile.length() == sourceLength);
+    }
+}
@@ -0,0 +1,72 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.xml.sax.SAXException;
+
+/**
+ * One use class that receives notifications of Android String XML elements and builds an {@link AndroidStringsSkeleton}
+ * of the document, which can be retrieved via {@link #getSkeleton()}.
+ * <p/>
+ * The text of each string and item element becomes a slot to be translated and everything else is kept as mark up.
+ * So the whole document is held in memory, unlike {@link AndroidStringsHandler} which writes it as it is parsed.
+ */
+final class AndroidStringsSkeletonHandler extends AbstractAndroidStringsHandler {
+
+    private final CharEscaper charEscaper = new CharEscaper();
+
+    // Mark up preceding each slot, and the keys and text of each slot.
+    private final List<String> markup = new ArrayList<String>();
+    private final List<String> keys = new ArrayList<String>();
+    private final List<String> sourceTexts = new ArrayList<String>();
+    private final List<String> textsToTranslate = new ArrayList<String>();
+    private final StringBuilder output = new StringBuilder();
+
+    private final long sourceLastModified;
+    private final long sourceLength;
+    private AndroidStringsSkeleton skeleton;
+
+    /**
+     * @param sourceFile    File being parsed.
+     */
+    AndroidStringsSkeletonHandler(File sourceFile) {
+        this.sourceLastModified = sourceFile.lastModified();
+        this.sourceLength = sourceFile.length();
+    }
+
+    /**
+     * @return skeleton of the document, or null if the end of the document has not been reached.
+     */
+    public AndroidStringsSkeleton getSkeleton() {
+        return skeleton;
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        super.endDocument();
+        markup.add(output.toString());
+        skeleton = new AndroidStringsSkeleton(markup, keys, sourceTexts, textsToTranslate, sourceLastModified, sourceLength);
+    }
+
+    @Override
+    protected void addMarkup(CharSequence text) {
+        output.append(text);
+    }
+
+    @Override
+    protected void addMarkup(char[] ch, int start, int length) {
+        output.append(ch, start, length);
+    }
+
+    @Override
+    protected void addText(String key, StringBuilder sourceText) {
+        // End the mark up preceding the text and make the text a slot.
+        markup.add(output.toString());
+        output.setLength(0);
+        keys.add(key);
+        sourceTexts.add(sourceText.toString());
+        textsToTranslate.add(charEscaper.removeBackslashes(sourceText));
+    }
+}
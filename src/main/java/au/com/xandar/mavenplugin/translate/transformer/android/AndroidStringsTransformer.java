@@ -1,18 +1,27 @@
 package au.com.xandar.mavenplugin.translate.transformer.android;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import au.com.xandar.mavenplugin.translate.transformer.KeySnapshot;
 import au.com.xandar.mavenplugin.translate.transformer.ResourceTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.SnapshotLocator;
+import au.com.xandar.mavenplugin.translate.transformer.TargetFileWriter;
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslatorAdapter;
 import au.com.xandar.mavenplugin.translate.translator.LineEndReplacementDecorator;
 import au.com.xandar.mavenplugin.translate.translator.StringFormatReplacementDecorator;
 import au.com.xandar.mavenplugin.translate.translator.Translator;
@@ -31,6 +40,14 @@ public class AndroidStringsTransformer implements ResourceTransformer {
     private final String sourceLanguage;
     private final Translator translator;
     private String targetFileEncoding = "UTF-8";
+    private SnapshotLocator snapshotLocator;
+    private int batchSize = 100;
+    private ExecutorService executor;
+    private int maxBatchesInFlight = 1;
+    private boolean parseOnce;
+
+    // Skeleton of each source file that has been parsed, when parsing once.
+    private final ConcurrentMap<File, FutureTask<AndroidStringsSkeleton>> skeletons = new ConcurrentHashMap<File, FutureTask<AndroidStringsSkeleton>>();
 
     public AndroidStringsTransformer(String sourceLanguage, Translator translator) {
         this.sourceLanguage = sourceLanguage;
@@ -55,22 +72,196 @@ public class AndroidStringsTransformer implements ResourceTransformer {
         this.targetFileEncoding = targetFileEncoding;
     }
 
+    /**
+     * @param batchSize Maximum number of strings to send for translation at once. Defaults to 100.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Allows batches of strings to be translated while the rest of the file is parsed.
+     *
+     * @param executor              ExecutorService on which to translate, or null to translate on the parsing thread.
+     * @param maxBatchesInFlight    Maximum number of batches of each file to have waiting on translation at once.
+     */
+    public void setExecutor(ExecutorService executor, int maxBatchesInFlight) {
+        this.executor = executor;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Parses each source file only once, however many languages it is translated into.
+     * <p/>
+     * Otherwise each language parses the source file again and streams it to the target file as it is translated,
+     * so that only the texts waiting on translation are held in memory. Parsing once instead holds the whole of each source file
+     * in memory as a skeleton, from which each language is written.
+     * <p/>
+     * The skeleton of each source file is kept until it is released by {@link #release(File)} or the transformer is discarded,
+     * and the first language to be translated parses it while any other language translating the same file waits for it.
+     * A source file is only parsed again if its last modified time or length changes.
+     *
+     * @param parseOnce true if a source file should be parsed once and reused for each target language.
+     */
+    public void setParseOnce(boolean parseOnce) {
+        this.parseOnce = parseOnce;
+        if (!parseOnce) {
+            skeletons.clear();
+        }
+    }
+
+    /**
+     * Discards the skeleton of a source file that is being parsed once, so that it can be garbage collected.
+     * Call it once the file has been translated into every language. If the file is translated again it is parsed again.
+     *
+     * @param sourceFile    Source file that has been translated into every language.
+     */
+    public void release(File sourceFile) {
+        skeletons.remove(sourceFile.getAbsoluteFile());
+    }
+
+    /**
+     * @param snapshotLocator   Locates the snapshot of the source each target was generated from,
+     *                          so that only added or changed strings are translated. If null every string is translated.
+     */
+    public void setSnapshotLocator(SnapshotLocator snapshotLocator) {
+        this.snapshotLocator = snapshotLocator;
+    }
+
+    /**
+     * Translates the source file, writing the result as it goes to a temporary file
+     * that replaces the target file once the whole file has been translated.
+     * So the translated document is never held in memory as a whole and a failed transform leaves the target untouched.
+     */
     public void transform(File sourceFile, File targetFile, String targetLanguage) throws IOException {
+        final File snapshotFile = (snapshotLocator == null) ? null : snapshotLocator.getSnapshotFile(targetFile);
+        final KeySnapshot sourceSnapshot;
+        final TargetFileWriter target = new TargetFileWriter(targetFile, targetFileEncoding);
+        try {
+            sourceSnapshot = transform(sourceFile, targetFile, targetLanguage, snapshotFile, target.getWriter());
+        } catch (IOException e) {
+            target.discard();
+            throw e;
+        } catch (RuntimeException e) {
+            target.discard();
+            throw e;
+        }
+        target.commit();
 
-        final String translatedText;
+        // Only once the target is in place, so that a snapshot never describes a target that wasn't written.
+        if (snapshotFile != null) {
+            sourceSnapshot.save(snapshotFile);
+        }
+    }
+
+    /**
+     * Streams the source file through the translator when parsing each time, so that only the texts waiting on translation
+     * are held in memory. When parsing once the skeleton of the source file is filled in instead.
+     *
+     * @return snapshot of the source text of every key in the source file.
+     */
+    private KeySnapshot transform(File sourceFile, File targetFile, String targetLanguage, File snapshotFile, Writer writer) throws IOException {
+
+        final AsyncTranslatorAdapter asyncTranslator = new AsyncTranslatorAdapter(translator, executor);
+        final KeySnapshot previousSourceSnapshot = KeySnapshot.load(snapshotFile);
+        final Map<String, String> previousTranslations = (previousSourceSnapshot != null && targetFile.exists())
+                ? readPreviousTranslations(targetFile)
+                : null;
+
+        if (!parseOnce) {
+            final AndroidStringsHandler handler = new AndroidStringsHandler(asyncTranslator, sourceLanguage, targetLanguage, writer);
+            handler.setBatchSize(batchSize);
+            handler.setMaxBatchesInFlight(maxBatchesInFlight);
+            if (previousTranslations != null) {
+                handler.setPreviousTranslations(previousSourceSnapshot, previousTranslations);
+            }
+            final InputStream stream = new FileInputStream(sourceFile);
+            try {
+                parse(stream, handler);
+            } finally {
+                stream.close();
+            }
+            return handler.getSourceSnapshot();
+        }
+
+        final AndroidStringsSkeleton skeleton = getSkeleton(sourceFile);
+        final AndroidStringsWriter documentWriter = new AndroidStringsWriter(asyncTranslator, sourceLanguage, targetLanguage, skeleton, writer);
+        documentWriter.setBatchSize(batchSize);
+        documentWriter.setMaxBatchesInFlight(maxBatchesInFlight);
+        if (previousTranslations != null) {
+            documentWriter.setPreviousTranslations(previousSourceSnapshot, previousTranslations);
+        }
+
+        documentWriter.write();
+        return skeleton.getSourceSnapshot();
+    }
+
+    /**
+     * @param sourceFile    File to parse.
+     * @return skeleton of the source file, reusing a previous parse of the file.
+     * @throws IOException if the file could not be parsed.
+     */
+    private AndroidStringsSkeleton getSkeleton(final File sourceFile) throws IOException {
+        final File key = sourceFile.getAbsoluteFile();
+        while (true) {
+            final FutureTask<AndroidStringsSkeleton> newParse = new FutureTask<AndroidStringsSkeleton>(new Callable<AndroidStringsSkeleton>() {
+                public AndroidStringsSkeleton call() throws IOException {
+                    return parse(sourceFile);
+                }
+            });
+            final FutureTask<AndroidStringsSkeleton> existingParse = skeletons.putIfAbsent(key, newParse);
+            final FutureTask<AndroidStringsSkeleton> parse = (existingParse == null) ? newParse : existingParse;
+            if (existingParse == null) {
+                newParse.run();
+            }
+
+            try {
+                final AndroidStringsSkeleton skeleton = parse.get();
+                if (skeleton.isCurrent(sourceFile)) {
+                    return skeleton;
+                }
+                skeletons.remove(key, parse); // The file has changed since it was parsed, so parse it again.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for " + sourceFile + " to be parsed", e);
+            } catch (ExecutionException e) {
+                skeletons.remove(key, parse);
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IOException("Could not parse " + sourceFile, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * @param targetFile    Previously generated file.
+     * @return the text of each string in the target file, or null if it can't be read in which case every string will be translated.
+     */
+    private Map<String, String> readPreviousTranslations(File targetFile) {
+        try {
+            return AndroidStringsReader.read(targetFile);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private AndroidStringsSkeleton parse(File sourceFile) throws IOException {
+        final AndroidStringsSkeletonHandler handler = new AndroidStringsSkeletonHandler(sourceFile);
         final InputStream stream = new FileInputStream(sourceFile);
         try {
-            translatedText = parse(stream, sourceLanguage, targetLanguage);
+            parse(stream, handler);
         } finally {
             stream.close();
         }
-
-        writeText(targetFile, translatedText);
+        return handler.getSkeleton();
     }
 
-    private String parse(InputStream stream, String sourceLanguage, String targetLanguage) throws IOException {
+    private void parse(InputStream stream, AbstractAndroidStringsHandler handler) throws IOException {
         try {
-            final AndroidStringsHandler handler = new AndroidStringsHandler(translator, sourceLanguage, targetLanguage);
             final SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
 
             // Using a LexicalHandler so that we can replicate comments in the output.
@@ -78,27 +269,10 @@ public class AndroidStringsTransformer implements ResourceTransformer {
             xmlReader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
 
             saxParser.parse(stream, handler);
-            return handler.getTranslatedDocument();
         } catch (ParserConfigurationException e) {
             throw new IOException("Could not create SaxParser", e);
         } catch (SAXException e) {
             throw new IOException(e);
         }
     }
-
-
-    private void writeText(File file, String text) throws IOException {
-
-        // Create any folders that need to be created.
-        if (!file.getParentFile().exists()) {
-            file.getParentFile().mkdirs();
-        }
-
-        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), targetFileEncoding));
-        try {
-            writer.write(text);
-        } finally {
-            writer.close();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import au.com.xandar.mavenplugin.translate.transformer.KeySnapshot;
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationException;
+
+/**
+ * One use class that writes an {@link AndroidStringsSkeleton} translated into a target language.
+ * <p/>
+ * Texts requiring translation are translated in batches. Each batch is handed to the AsyncTranslator
+ * and the following texts are queued while it is being translated, with up to maxBatchesInFlight batches outstanding at once.
+ * The document is written in order as far as the first text still waiting on translation.
+ */
+final class AndroidStringsWriter {
+
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final CharEscaper charEscaper = new CharEscaper();
+
+    private final AndroidStringsSkeleton skeleton;
+    private final Writer document;
+
+    // Translated text of each slot, or null until it has been translated.
+    private final String[] translations;
+    private int nrSlotsWritten;
+
+    // Slots queued for translation.
+    private final List<Integer> pendingSlots = new ArrayList<Integer>();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Batches that have been submitted for translation, in document order.
+    private final LinkedList<Batch> batchesInFlight = new LinkedList<Batch>();
+    private int maxBatchesInFlight = 1;
+
+    private KeySnapshot previousSourceSnapshot;
+    private Map<String, String> previousTranslations;
+
+    private final String sourceLanguage;
+    private final String targetLanguage;
+    private final AsyncTranslator translator;
+
+    AndroidStringsWriter(AsyncTranslator translator, String sourceLanguage, String targetLanguage, AndroidStringsSkeleton skeleton, Writer document) {
+        this.translator = translator;
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.skeleton = skeleton;
+        this.document = document;
+        this.translations = new String[skeleton.getNrSlots()];
+    }
+
+    /**
+     * @param batchSize Maximum number of texts to translate at once.
+     */
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param maxBatchesInFlight    Maximum number of batches to have waiting on translation at once.
+     */
+    void setMaxBatchesInFlight(int maxBatchesInFlight) {
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Allows the translations from a previous run to be reused for any key whose source text hasn't changed.
+     *
+     * @param previousSourceSnapshot    Snapshot of the source text when the previous translations were made.
+     * @param previousTranslations      Translated text of each key from the previous run.
+     */
+    void setPreviousTranslations(KeySnapshot previousSourceSnapshot, Map<String, String> previousTranslations) {
+        this.previousSourceSnapshot = previousSourceSnapshot;
+        this.previousTranslations = previousTranslations;
+    }
+
+    /**
+     * Translates each slot of the skeleton, writing the document as the translations become available.
+     *
+     * @throws IOException if the document could not be written.
+     */
+    public void write() throws IOException {
+        for (int slot = 0; slot < translations.length; slot++) {
+
+            // Perform translation if required, unless the source is unchanged since it was last translated.
+            final String key = skeleton.getKey(slot);
+            if (isPreviouslyTranslated(key, skeleton.getSourceText(slot))) {
+                translations[slot] = previousTranslations.get(key);
+                writeTranslatedSlots();
+            } else {
+                queueTranslation(slot);
+            }
+        }
+
+        submitPendingSlots();
+        addTranslatedBatches(0);
+        document.write(skeleton.getMarkup(translations.length));
+    }
+
+    /**
+     * Queues the slot for translation, submitting the queued slots for translation once there is a full batch.
+     *
+     * @param slot  Slot to translate.
+     */
+    private void queueTranslation(int slot) throws IOException {
+        pendingSlots.add(slot);
+        if (pendingSlots.size() >= batchSize) {
+            submitPendingSlots();
+            addTranslatedBatches(maxBatchesInFlight);
+        }
+    }
+
+    /**
+     * Submits all of the queued slots for translation as a single batch.
+     */
+    private void submitPendingSlots() {
+        if (pendingSlots.isEmpty()) {
+            return;
+        }
+
+        final List<String> texts = new ArrayList<String>(pendingSlots.size());
+        for (final Integer slot : pendingSlots) {
+            texts.add(skeleton.getTextToTranslate(slot));
+        }
+        final Future<List<String>> batchTranslations = translator.translateAllAsync(texts, sourceLanguage, targetLanguage);
+        batchesInFlight.add(new Batch(batchTranslations, new ArrayList<Integer>(pendingSlots)));
+
+        pendingSlots.clear();
+    }
+
+    /**
+     * Records the translations of each batch that has been translated and writes the document as far as possible.
+     * Batches are recorded in document order, so a completed batch waits for any batch before it.
+     *
+     * @param maxRemaining  Wait for translations until no more than this many batches remain in flight.
+     * @throws IOException if the document could not be written.
+     */
+    private void addTranslatedBatches(int maxRemaining) throws IOException {
+        while (!batchesInFlight.isEmpty()) {
+            final Batch batch = batchesInFlight.getFirst();
+            if (!batch.translations.isDone() && batchesInFlight.size() <= maxRemaining) {
+                break;
+            }
+            batchesInFlight.removeFirst();
+
+            final List<String> batchTranslations = getTranslations(batch);
+            for (int i = 0; i < batchTranslations.size(); i++) {
+                translations[batch.slots.get(i)] = charEscaper.addBackslashes(batchTranslations.get(i));
+            }
+        }
+        writeTranslatedSlots();
+    }
+
+    /**
+     * Writes each slot, and the mark up preceding it, up to the first slot that hasn't been translated yet.
+     */
+    private void writeTranslatedSlots() throws IOException {
+        while (nrSlotsWritten < translations.length && translations[nrSlotsWritten] != null) {
+            document.write(skeleton.getMarkup(nrSlotsWritten));
+            document.write(translations[nrSlotsWritten]);
+            translations[nrSlotsWritten] = null; // Release the translation once it has been written.
+            nrSlotsWritten++;
+        }
+    }
+
+    private List<String> getTranslations(Batch batch) {
+        try {
+            return batch.translations.get();
+        } catch (InterruptedException e) {
+            cancelBatchesInFlight();
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for translation", e);
+        } catch (ExecutionException e) {
+            cancelBatchesInFlight();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TranslationException("Could not translate", e.getCause());
+        }
+    }
+
+    private void cancelBatchesInFlight() {
+        for (final Batch batch : batchesInFlight) {
+            batch.translations.cancel(true);
+        }
+        batchesInFlight.clear();
+    }
+
+    private boolean isPreviouslyTranslated(String key, String sourceText) {
+        return (key != null)
+                && (previousSourceSnapshot != null)
+                && previousSourceSnapshot.isUnchanged(key, sourceText)
+                && previousTranslations.containsKey(key);
+    }
+
+    /**
+     * Slots submitted for translation together.
+     */
+    private static final class Batch {
+
+        private final Future<List<String>> translations;
+        private final List<Integer> slots;
+
+        private Batch(Future<List<String>> translations, List<Integer> slots) {
+            this.translations = translations;
+            this.slots = slots;
+        }
+    }
+}
@@ -4,6 +4,10 @@ package au.com.xandar.mavenplugin.translate.transformer.android;
  * Responsible for escaping/unescaping back slashes within text such that it is suitable for either AndroidStrings or normal consumption.
  * <p/>
  * NB leaves \n intact, ie it doesn't remove the back slash in that instance.
+ * <p/>
+ * Each method makes a single pass over the text, copying it into a buffer that is reused from call to call,
+ * and text that needs no change is returned without being copied at all.
+ * So an instance must only be used by one thread at a time.
  *
  * User: William
  * Date: 23/08/11
@@ -11,65 +15,74 @@ package au.com.xandar.mavenplugin.translate.transformer.android;
  */
 final class CharEscaper {
 
-    private static final char LINE_END = '\n';
+    // Chars that must be escaped by a back slash in an AndroidStrings file.
+    private static final boolean[] ESCAPED_CHARS = new boolean[128];
+    static {
+        ESCAPED_CHARS['\''] = true;
+        ESCAPED_CHARS['\\'] = true;
+        ESCAPED_CHARS['"'] = true;
+    }
+
+    private final StringBuilder buffer = new StringBuilder();
 
     /**
      * Looks for any chars escaped by a back slash (such as single and double quotes and back slashes)
      * and removes the back slash so that the text makes sense to the translator.
      *
-     * @param text  StringBuilder from which to remove back slashes.
+     * @param text  Text from which to remove back slashes.
+     * @return the text without the back slashes.
      */
-    public void removeBackslashes(StringBuilder text) {
-        boolean escaping = false;
-        for (int i = 0; i < text.length(); ) {
-            final char chr = text.charAt(i);
-
-            if (escaping && (chr == 'n')) {
-                // CR LF - Replace '\' 'n' with '\n'
-                //text.deleteCharAt(i - 1);
-                //text.deleteCharAt(i - 1);
-                //text.insert(i - 1, LINE_END);
-
-                // Ignore \n
-                escaping = false;
-                i++;
-            } else if (escaping) {
+    public String removeBackslashes(CharSequence text) {
+        final int length = text.length();
+        buffer.setLength(0);
+        int copied = 0;
+        for (int i = 0; i < length - 1; i++) {
+            if (text.charAt(i) != '\\') {
+                continue;
+            }
+            if (text.charAt(i + 1) != 'n') {
                 // Remove the backslash
-                text.deleteCharAt(i - 1);
-                escaping = false;
-            } else if (chr == '\\') { // Found backslash
-                escaping = true;
-                i++;
-            } else {
-                escaping = false;
-                i++;
+                buffer.append(text, copied, i);
+                copied = i + 1;
             }
+            i++; // The escaped char (or the n of \n) is kept as is.
         }
+        return finish(text, copied);
     }
 
     /**
      * Looks for any chars that should be escaped by a back slash in an AndroidStrings file and inserts a backslash before them.
      *
-     * @param text  StringBuilder into which to add back slashes.
+     * @param text  Text into which to add back slashes.
+     * @return the text with back slashes added.
      */
-    public void addBackslashes(StringBuilder text) {
+    public String addBackslashes(CharSequence text) {
 
         //System.out.println("AndroidStrings-addBackslashes-start");
         //PrintHelper.printChars(text);
 
-        for (int i = 0; i < text.length(); ) {
+        final int length = text.length();
+        buffer.setLength(0);
+        int copied = 0;
+        for (int i = 0; i < length; i++) {
             final char chr = text.charAt(i);
-
-            if ((chr == '\\') && (i+1 < text.length()) && (text.charAt(i+1) == 'n')) {
+            if ((chr == '\\') && (i + 1 < length) && (text.charAt(i + 1) == 'n')) {
                 // Found '\' + 'n' - ignore it.
                 i++;
-            } else if ((chr == '\'') || (chr == '\\') || (chr == '"')) {
-                text.insert(i, '\\');
-                i++;
-                i++;
-            } else {
-                i++;
+            } else if ((chr < ESCAPED_CHARS.length) && ESCAPED_CHARS[chr]) {
+                buffer.append(text, copied, i);
+                buffer.append('\\');
+                copied = i;
             }
         }
+        return finish(text, copied);
+    }
+
+    private String finish(CharSequence text, int copied) {
+        if (copied == 0 && buffer.length() == 0) {
+            return text.toString(); // Nothing changed.
+        }
+        buffer.append(text, copied, text.length());
+        return buffer.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import org.xml.sax.Attributes;
+
+/**
+ * Responsible for tracking the key of the translatable text within an Android strings document.
+ * <p/>
+ * A string is keyed by its name, an item within a string-array by its array name and index
+ * and an item within plurals by its plurals name and quantity, eg <code>greeting</code>,
+ * <code>descriptions[2]</code> or <code>nr_words[other]</code>.
+ */
+final class StringKeyTracker {
+
+    private String currentKey;
+    private String arrayName;
+    private int itemIndex;
+
+    /**
+     * @param elementName   Name of the element that has been started.
+     * @param attributes    Attributes of the element.
+     * @return true if the element contains translatable text.
+     */
+    public boolean startElement(String elementName, Attributes attributes) {
+        if ("string".equals(elementName)) {
+            currentKey = getAttribute(attributes, "name");
+            return true;
+        }
+        if ("string-array".equals(elementName) || "plurals".equals(elementName)) {
+            arrayName = getAttribute(attributes, "name");
+            itemIndex = 0;
+            return false;
+        }
+        if ("item".equals(elementName)) {
+            final String quantity = getAttribute(attributes, "quantity");
+            currentKey = arrayName + "[" + ((quantity == null) ? String.valueOf(itemIndex) : quantity) + "]";
+            itemIndex++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return key of the translatable text most recently started.
+     */
+    public String getCurrentKey() {
+        return currentKey;
+    }
+
+    private String getAttribute(Attributes attributes, String name) {
+        return (attributes == null) ? null : attributes.getValue(name);
+    }
+}
@@ -0,0 +1,182 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reader that decodes the content of a FileChannel.
+ * <p/>
+ * Large files are memory mapped a region at a time so their content is never copied into the heap as bytes,
+ * smaller files are read through a byte buffer. Runs of ASCII characters are copied straight into the
+ * caller's buffer when the charset encodes them as single bytes, and everything else is decoded by a CharsetDecoder
+ * that is reused for the whole file. As with an InputStreamReader, malformed input is replaced rather than reported.
+ * <p/>
+ * Mapped regions are released when they are garbage collected, so the file may remain locked until then on some platforms.
+ * Read a file that is about to be deleted or replaced through {@link #unmapped(FileChannel, Charset)},
+ * as a mapped file can't be deleted on Windows.
+ */
+final class FileChannelReader extends Reader {
+
+    private static final long MAP_THRESHOLD = 256 * 1024;
+    private static final int MAP_REGION_SIZE = 64 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final boolean latin1;
+    private final boolean asciiCompatible;
+
+    private final boolean mapped;
+    private final int mapRegionSize;
+    private final long fileSize;
+    private long regionStart;
+    private ByteBuffer bytes;
+    private boolean endOfInput;
+    private final byte[] scratch = new byte[READ_BUFFER_SIZE];
+
+    /**
+     * @param channel   FileChannel from which to read, positioned at the start of the content.
+     * @param charset   Charset in which the content is encoded.
+     * @throws IOException if the file could not be mapped or read.
+     */
+    FileChannelReader(FileChannel channel, Charset charset) throws IOException {
+        this(channel, charset, MAP_THRESHOLD, MAP_REGION_SIZE);
+    }
+
+    /**
+     * @param channel       FileChannel from which to read, positioned at the start of the content.
+     * @param charset       Charset in which the content is encoded.
+     * @param mapThreshold  Files with at least this many bytes to read are memory mapped.
+     * @param mapRegionSize Number of bytes to map at once, which must hold at least one encoded character.
+     * @throws IOException if the file could not be mapped or read.
+     */
+    FileChannelReader(FileChannel channel, Charset charset, long mapThreshold, int mapRegionSize) throws IOException {
+        this.channel = channel;
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.latin1 = "ISO-8859-1".equals(charset.name());
+        this.asciiCompatible = latin1 || "US-ASCII".equals(charset.name()) || "UTF-8".equals(charset.name())
+                || charset.name().startsWith("windows-125");
+
+        this.mapRegionSize = mapRegionSize;
+        this.fileSize = channel.size();
+        this.regionStart = channel.position();
+        this.mapped = (fileSize - regionStart >= mapThreshold);
+        if (mapped) {
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(mapRegionSize, fileSize - regionStart));
+        } else {
+            bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            bytes.flip();
+        }
+    }
+
+    /**
+     * @param channel   FileChannel from which to read, positioned at the start of the content.
+     * @param charset   Charset in which the content is encoded.
+     * @return a FileChannelReader that reads the file through a byte buffer however large it is.
+     * @throws IOException if the file could not be read.
+     */
+    static FileChannelReader unmapped(FileChannel channel, Charset charset) throws IOException {
+        return new FileChannelReader(channel, charset, Long.MAX_VALUE, MAP_REGION_SIZE);
+    }
+
+    @Override
+    public int read(char[] chars, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (endOfInput) {
+                return -1;
+            }
+
+            int nrChars = copyAscii(chars, off, len);
+            if (nrChars < len && bytes.hasRemaining()) {
+                // Stopped at a character that is not a single byte, so decode from there.
+                final CharBuffer out = CharBuffer.wrap(chars, off + nrChars, len - nrChars);
+                decoder.decode(bytes, out, false);
+                nrChars = out.position() - off;
+            }
+            if (nrChars > 0) {
+                return nrChars;
+            }
+
+            if (!readBytes()) {
+                // Decode any incomplete character left at the end of the file.
+                final CharBuffer out = CharBuffer.wrap(chars, off, len);
+                decoder.decode(bytes, out, true);
+                decoder.flush(out);
+                endOfInput = true;
+                nrChars = out.position() - off;
+                if (nrChars > 0) {
+                    return nrChars;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies bytes to chars for as long as each byte is a character on its own.
+     *
+     * @return number of chars copied.
+     */
+    private int copyAscii(char[] chars, int off, int len) {
+        if (!asciiCompatible) {
+            return 0;
+        }
+
+        // Bulk copy the bytes out of the buffer, which is much faster than reading a mapped buffer a byte at a time.
+        final int start = bytes.position();
+        final int max = Math.min(Math.min(len, scratch.length), bytes.remaining());
+        bytes.get(scratch, 0, max);
+        int n = 0;
+        if (latin1) {
+            for (; n < max; n++) {
+                chars[off + n] = (char) (scratch[n] & 0xff);
+            }
+        } else {
+            for (; n < max; n++) {
+                final byte b = scratch[n];
+                if (b < 0) {
+                    break;
+                }
+                chars[off + n] = (char) b;
+            }
+            bytes.position(start + n);
+        }
+        return n;
+    }
+
+    /**
+     * Makes the next bytes of the file available, keeping any bytes that have not been decoded yet.
+     *
+     * @return false if there are no more bytes in the file.
+     */
+    private boolean readBytes() throws IOException {
+        if (mapped) {
+            if (regionStart + bytes.limit() >= fileSize) {
+                return false;
+            }
+            regionStart += bytes.position();
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(mapRegionSize, fileSize - regionStart));
+            return true;
+        }
+
+        bytes.compact();
+        final int nrRead = channel.read(bytes);
+        bytes.flip();
+        return (nrRead > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
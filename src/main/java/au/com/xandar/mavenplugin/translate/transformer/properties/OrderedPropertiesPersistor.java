@@ -7,6 +7,8 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.util.Date;
 
 import au.com.xandar.mavenplugin.translate.OrderedTerms;
@@ -194,6 +196,21 @@ final class OrderedPropertiesPersistor {
         return load0(new PropertyLineReader(inStream));
     }
 
+    /**
+     * Reads a property list from a file in the format specified in {@link #load(java.io.Reader) load(Reader)}.
+     * Large files are memory mapped rather than read through a stream.
+     * <p/>
+     * The specified channel remains open after this method returns.
+     *
+     * @param channel   FileChannel from which to read the properties.
+     * @param charset   Charset in which the file is encoded.
+     * @throws java.io.IOException if an error occurred when reading from the file.
+     * @return OrderedProperties read from the file.
+     */
+    public OrderedTerms load(FileChannel channel, Charset charset) throws IOException {
+        return load0(new PropertyLineReader(channel, charset));
+    }
+
     private OrderedTerms load0(PropertyLineReader lr) throws IOException {
 
         final OrderedTerms props = new OrderedTerms();
@@ -202,42 +219,8 @@ final class OrderedPropertiesPersistor {
         int limit;
 
         while ((limit = lr.readLine()) >= 0) {
-            int keyLen = 0;
-            int valueStart = limit;
-            boolean hasSep = false;
-
-            // System.out.println("line=<" + new String(lineBuf, 0, limit) +
-            // ">");
-            boolean precedingBackslash = false;
-            while (keyLen < limit) {
-                final char c = lr.getLineBuffer()[keyLen];
-                // need check if escaped.
-                if ((c == '=' || c == ':') && !precedingBackslash) {
-                    valueStart = keyLen + 1;
-                    hasSep = true;
-                    break;
-                } else if ((c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
-                    valueStart = keyLen + 1;
-                    break;
-                }
-                if (c == '\\') {
-                    precedingBackslash = !precedingBackslash;
-                } else {
-                    precedingBackslash = false;
-                }
-                keyLen++;
-            }
-            while (valueStart < limit) {
-                final char c = lr.getLineBuffer()[valueStart];
-                if (c != ' ' && c != '\t' && c != '\f') {
-                    if (!hasSep && (c == '=' || c == ':')) {
-                        hasSep = true;
-                    } else {
-                        break;
-                    }
-                }
-                valueStart++;
-            }
+            final int keyLen = getKeyLength(lr.getLineBuffer(), limit);
+            final int valueStart = getValueStart(lr.getLineBuffer(), keyLen, limit);
             final String key = loadConvert(lr.getLineBuffer(), 0, keyLen, convtBuf);
             final String value = loadConvert(lr.getLineBuffer(), valueStart, limit - valueStart, convtBuf);
             props.setProperty(key, value);
@@ -246,11 +229,61 @@ final class OrderedPropertiesPersistor {
         return props;
     }
 
+    /**
+     * @param line  Logical line holding a key and its value.
+     * @param limit Length of the logical line.
+     * @return length of the key, which ends at the first unescaped separator or white space.
+     */
+    int getKeyLength(char[] line, int limit) {
+        int keyLen = 0;
+        boolean precedingBackslash = false;
+        while (keyLen < limit) {
+            final char c = line[keyLen];
+            // need check if escaped.
+            if ((c == '=' || c == ':' || c == ' ' || c == '\t' || c == '\f') && !precedingBackslash) {
+                break;
+            }
+            if (c == '\\') {
+                precedingBackslash = !precedingBackslash;
+            } else {
+                precedingBackslash = false;
+            }
+            keyLen++;
+        }
+        return keyLen;
+    }
+
+    /**
+     * @param line      Logical line holding a key and its value.
+     * @param keyLen    Length of the key.
+     * @param limit     Length of the logical line.
+     * @return index of the start of the value, skipping the separator and any white space around it.
+     */
+    int getValueStart(char[] line, int keyLen, int limit) {
+        if (keyLen >= limit) {
+            return limit;
+        }
+        boolean hasSep = (line[keyLen] == '=' || line[keyLen] == ':');
+        int valueStart = keyLen + 1;
+        while (valueStart < limit) {
+            final char c = line[valueStart];
+            if (c != ' ' && c != '\t' && c != '\f') {
+                if (!hasSep && (c == '=' || c == ':')) {
+                    hasSep = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+        return valueStart;
+    }
+
     /*
       * Converts encoded &#92;uxxxx to unicode chars and changes special saved
       * chars to their original forms
       */
-    private String loadConvert(char[] in, int off, int len, char[] convtBuf) {
+    String loadConvert(char[] in, int off, int len, char[] convtBuf) {
         if (convtBuf.length < len) {
             int newLen = len * 2;
             if (newLen < 0) {
@@ -329,7 +362,7 @@ final class OrderedPropertiesPersistor {
       * Converts unicodes to encoded &#92;uxxxx and escapes special characters
       * with a preceding slash
       */
-    private String saveConvert(String theString, boolean escapeSpace,
+    String saveConvert(String theString, boolean escapeSpace,
                                boolean escapeUnicode) {
         int len = theString.length();
         int bufLen = len * 2;
@@ -529,21 +562,66 @@ final class OrderedPropertiesPersistor {
 
         synchronized (this) {
             for (String key : props.propertyNames()) {
-                String val = props.getProperty(key, "");
-                key = saveConvert(key, true, escUnicode);
-
-                /*
-                     * No need to escape embedded and trailing spaces for value,
-                     * hence pass false to flag.
-                     */
-                val = saveConvert(val, false, escUnicode);
-                bw.write(key + "=" + val);
-                bw.newLine();
+                writeEntry(bw, key, props.getProperty(key, ""), escUnicode);
             }
         }
         bw.flush();
     }
 
+    /**
+     * Writes a comment line as it was read.
+     * <p/>
+     * A comment isn't unescaped when it is loaded, so only the characters that need to be are written as unicode escapes,
+     * as Properties.store does for its comments.
+     *
+     * @param bw            BufferedWriter to which to write the comment.
+     * @param line          Characters of the comment line, including its leading '#' or '!'.
+     * @param len           Number of characters in the line.
+     * @param escUnicode    true if characters outside of printable ASCII should be written as unicode escapes.
+     * @throws IOException if the comment could not be written.
+     */
+    void writeComment(BufferedWriter bw, char[] line, int len, boolean escUnicode) throws IOException {
+        if (!escUnicode) {
+            bw.write(line, 0, len);
+        } else {
+            for (int x = 0; x < len; x++) {
+                final char aChar = line[x];
+                if ((aChar < 0x0020) || (aChar > 0x007e)) {
+                    bw.write('\\');
+                    bw.write('u');
+                    bw.write(toHex((aChar >> 12) & 0xF));
+                    bw.write(toHex((aChar >> 8) & 0xF));
+                    bw.write(toHex((aChar >> 4) & 0xF));
+                    bw.write(toHex(aChar & 0xF));
+                } else {
+                    bw.write(aChar);
+                }
+            }
+        }
+        bw.newLine();
+    }
+
+    /**
+     * Writes the key and value as a single line.
+     *
+     * @param bw            BufferedWriter to which to write the entry.
+     * @param key           Key of the entry.
+     * @param val           Value of the entry.
+     * @param escUnicode    true if characters outside of printable ASCII should be written as unicode escapes.
+     * @throws IOException if the entry could not be written.
+     */
+    void writeEntry(BufferedWriter bw, String key, String val, boolean escUnicode) throws IOException {
+        key = saveConvert(key, true, escUnicode);
+
+        /*
+             * No need to escape embedded and trailing spaces for value,
+             * hence pass false to flag.
+             */
+        val = saveConvert(val, false, escUnicode);
+        bw.write(key + "=" + val);
+        bw.newLine();
+    }
+
     /**
      * Convert a nibble to a hex character
      *
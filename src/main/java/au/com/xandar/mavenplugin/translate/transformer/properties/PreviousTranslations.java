@@ -0,0 +1,98 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Responsible for reading the translations of a previously generated properties file alongside the source being translated.
+ * <p/>
+ * The target was written in the order of its source, so the translation of each key is found by reading on from the last one.
+ * Entries that are passed over, because their key has since been removed from the source or moved, are kept until asked for,
+ * so only those are held in memory rather than the whole file.
+ * <p/>
+ * The file is read through a byte buffer rather than memory mapped, as it is replaced once the source has been translated.
+ * If it can't be read it is treated as holding no more translations, so the remaining entries are translated again.
+ */
+final class PreviousTranslations {
+
+    private final OrderedPropertiesPersistor persistor = new OrderedPropertiesPersistor();
+    private final FileInputStream stream;
+    private final PropertyLineReader lineReader;
+    private final Map<String, String> passedOver = new HashMap<String, String>();
+    private final char[] convtBuf = new char[1024];
+    private boolean exhausted;
+
+    private PreviousTranslations(FileInputStream stream, Charset charset) throws IOException {
+        this.stream = stream;
+        this.lineReader = new PropertyLineReader(FileChannelReader.unmapped(stream.getChannel(), charset));
+    }
+
+    /**
+     * @param targetFile    Previously generated file.
+     * @param charset       Charset in which the file is encoded.
+     * @return PreviousTranslations of the file, or null if it doesn't exist or can't be read in which case every entry will be translated.
+     */
+    static PreviousTranslations open(File targetFile, Charset charset) {
+        if (!targetFile.exists()) {
+            return null;
+        }
+        try {
+            final FileInputStream stream = new FileInputStream(targetFile);
+            try {
+                return new PreviousTranslations(stream, charset);
+            } catch (IOException e) {
+                stream.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param key   Key of the entry.
+     * @return the previous translation of the entry, or null if there is none.
+     */
+    String get(String key) {
+        final String passed = passedOver.remove(key);
+        if (passed != null) {
+            return passed;
+        }
+        while (!exhausted) {
+            try {
+                final int limit = lineReader.readLine();
+                if (limit < 0) {
+                    exhausted = true;
+                    break;
+                }
+                final char[] line = lineReader.getLineBuffer();
+                final int keyLen = persistor.getKeyLength(line, limit);
+                final int valueStart = persistor.getValueStart(line, keyLen, limit);
+                final String entryKey = persistor.loadConvert(line, 0, keyLen, convtBuf);
+                final String entryValue = persistor.loadConvert(line, valueStart, limit - valueStart, convtBuf);
+                if (entryKey.equals(key)) {
+                    return entryValue;
+                }
+                passedOver.put(entryKey, entryValue);
+            } catch (IOException e) {
+                exhausted = true;
+            } catch (IllegalArgumentException e) {
+                exhausted = true; // Malformed unicode escape.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Closes the file, which must be done before it is replaced.
+     *
+     * @throws IOException if the file could not be closed.
+     */
+    void close() throws IOException {
+        stream.close();
+    }
+}
@@ -0,0 +1,166 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.Date;
+
+import au.com.xandar.mavenplugin.translate.EventProcessor;
+import au.com.xandar.mavenplugin.translate.OrderedTerms;
+import au.com.xandar.mavenplugin.translate.TermParser;
+import au.com.xandar.mavenplugin.translate.transformer.KeySnapshot;
+import au.com.xandar.mavenplugin.translate.transformer.ResourceTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.SnapshotLocator;
+import au.com.xandar.mavenplugin.translate.transformer.TargetFileWriter;
+import au.com.xandar.mavenplugin.translate.translator.Translator;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Responsible for transforming a properties file from one language to another.
+ * <p/>
+ * The source is read a logical line at a time and each entry is written to the target as soon as its value
+ * has been translated, so only the entry being translated is held in memory however large the file is.
+ * Comment and blank lines are copied to the target in place so the target keeps the layout of the source.
+ * <p/>
+ * Entries and comments holding characters that the target file encoding can't represent, e.g. Chinese in an ISO-8859-1 file,
+ * are written with unicode escapes as {@link OrderedPropertiesPersistor#store(java.io.OutputStream, OrderedTerms)} does.
+ * <p/>
+ * Incremental transforms read the previous translations alongside the source, as both are in the same key order,
+ * so only the source snapshots are held in memory.
+ */
+public final class PropertiesTransformer implements ResourceTransformer {
+
+    private final OrderedPropertiesPersistor persistor = new OrderedPropertiesPersistor();
+    private final TermParser parser;
+    private final String sourceLanguage;
+    private final Translator translator;
+    private String sourceFileEncoding = "ISO-8859-1";
+    private String targetFileEncoding = "ISO-8859-1";
+    private boolean includeDateHeader;
+    private SnapshotLocator snapshotLocator;
+
+    public PropertiesTransformer(String sourceLanguage, Translator translator, Log log) {
+        this.sourceLanguage = sourceLanguage;
+        this.translator = translator;
+        this.parser = new TermParser(log);
+    }
+
+    /**
+     * @param sourceFileEncoding    File encoding of the source file. Defaults to ISO-8859-1.
+     */
+    public void setSourceFileEncoding(String sourceFileEncoding) {
+        this.sourceFileEncoding = sourceFileEncoding;
+    }
+
+    /**
+     * @param targetFileEncoding    File encoding in which to write the translated file. Defaults to ISO-8859-1.
+     */
+    public void setTargetFileEncoding(String targetFileEncoding) {
+        this.targetFileEncoding = targetFileEncoding;
+    }
+
+    /**
+     * @param includeDateHeader true if the translated file should start with a comment holding the time it was generated.
+     */
+    public void setIncludeDateHeader(boolean includeDateHeader) {
+        this.includeDateHeader = includeDateHeader;
+    }
+
+    /**
+     * @param snapshotLocator   Locates the snapshot of the source each target was generated from,
+     *                          so that only added or changed entries are translated. If null every entry is translated.
+     */
+    public void setSnapshotLocator(SnapshotLocator snapshotLocator) {
+        this.snapshotLocator = snapshotLocator;
+    }
+
+    /**
+     * Translates the source file, writing each entry as soon as it has been translated to a temporary file
+     * that replaces the target file once the whole file has been translated.
+     */
+    public void transform(File sourceFile, File targetFile, String targetLanguage) throws IOException {
+        final File snapshotFile = (snapshotLocator == null) ? null : snapshotLocator.getSnapshotFile(targetFile);
+        final KeySnapshot previousSourceSnapshot = KeySnapshot.load(snapshotFile);
+        final KeySnapshot sourceSnapshot = (snapshotFile == null) ? null : new KeySnapshot();
+
+        final FileInputStream source = new FileInputStream(sourceFile);
+        try {
+            final TargetFileWriter target = new TargetFileWriter(targetFile, targetFileEncoding);
+            try {
+                // Read alongside the source, and closed before the target is replaced.
+                final PreviousTranslations previousTranslations = (previousSourceSnapshot == null) ? null
+                        : PreviousTranslations.open(targetFile, Charset.forName(targetFileEncoding));
+                try {
+                    final PropertyLineReader lineReader = new PropertyLineReader(source.getChannel(), Charset.forName(sourceFileEncoding));
+                    lineReader.setKeepComments(true);
+                    final CharsetEncoder targetEncoder = Charset.forName(targetFileEncoding).newEncoder();
+                    transform(lineReader, target.getWriter(), targetEncoder, targetLanguage, previousSourceSnapshot, previousTranslations, sourceSnapshot);
+                } finally {
+                    if (previousTranslations != null) {
+                        previousTranslations.close();
+                    }
+                }
+            } catch (IOException e) {
+                target.discard();
+                throw e;
+            } catch (RuntimeException e) {
+                target.discard();
+                throw e;
+            }
+            target.commit();
+        } finally {
+            source.close();
+        }
+
+        if (sourceSnapshot != null) {
+            sourceSnapshot.save(snapshotFile);
+        }
+    }
+
+    private void transform(PropertyLineReader lineReader, BufferedWriter writer, CharsetEncoder targetEncoder, String targetLanguage,
+                           KeySnapshot previousSourceSnapshot, PreviousTranslations previousTranslations, KeySnapshot sourceSnapshot) throws IOException {
+
+        if (includeDateHeader) {
+            writer.write("#" + new Date().toString());
+            writer.newLine();
+        }
+
+        // Holds the translation of the entry being translated until it is written.
+        final OrderedTerms translatedTerm = new OrderedTerms();
+        final char[] convtBuf = new char[1024];
+        int limit;
+        while ((limit = lineReader.readLine()) >= 0) {
+            final char[] line = lineReader.getLineBuffer();
+            if (lineReader.isComment()) {
+                final boolean escUnicode = !targetEncoder.canEncode(CharBuffer.wrap(line, 0, limit));
+                persistor.writeComment(writer, line, limit, escUnicode);
+                continue;
+            }
+
+            final int keyLen = persistor.getKeyLength(line, limit);
+            final int valueStart = persistor.getValueStart(line, keyLen, limit);
+            final String key = persistor.loadConvert(line, 0, keyLen, convtBuf);
+            final String value = persistor.loadConvert(line, valueStart, limit - valueStart, convtBuf);
+            if (sourceSnapshot != null) {
+                sourceSnapshot.put(key, value);
+            }
+
+            final String previousTranslation = (previousTranslations != null && previousSourceSnapshot.isUnchanged(key, value))
+                    ? previousTranslations.get(key) : null;
+            final String translation;
+            if (previousTranslation != null) {
+                translation = previousTranslation;
+            } else {
+                parser.parse(value, new EventProcessor(translator, sourceLanguage, targetLanguage, key, translatedTerm));
+                translation = translatedTerm.removeProperty(key);
+            }
+            final String entryValue = (translation == null) ? "" : translation;
+            final boolean escUnicode = !targetEncoder.canEncode(key) || !targetEncoder.canEncode(entryValue);
+            persistor.writeEntry(writer, key, entryValue, escUnicode);
+        }
+    }
+}
@@ -3,13 +3,19 @@ package au.com.xandar.mavenplugin.translate.transformer.properties;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 
 /**
- * Responsible for reading in a "logical line" from an InputStream/Reader.
+ * Responsible for reading in a "logical line" from an InputStream/Reader/FileChannel.
  * <p>
  * Skips all comment and blank lines and filters out those leading whitespace characters ( , and )
  * from the beginning of a "natural line".
  * </p>
+ * <p>
+ * If comments are kept then each comment line is returned as it was read, starting with its # or !,
+ * and each blank line is returned as an empty line. {@link #isComment()} distinguishes them from logical lines.
+ * </p>
  */
 final class PropertyLineReader {
 
@@ -23,6 +29,17 @@ final class PropertyLineReader {
         inCharBuf = new char[8192];
     }
 
+    /**
+     * Reads the file through a {@link FileChannelReader}, which memory maps large files.
+     *
+     * @param channel   FileChannel from which to read, positioned at the start of the content.
+     * @param charset   Charset in which the file is encoded.
+     * @throws IOException if the file could not be mapped or read.
+     */
+    public PropertyLineReader(FileChannel channel, Charset charset) throws IOException {
+        this(new FileChannelReader(channel, charset));
+    }
+
     private byte[] inByteBuf;
     private char[] inCharBuf;
     private char[] lineBuf = new char[1024];
@@ -31,10 +48,30 @@ final class PropertyLineReader {
     private InputStream inStream;
     private Reader reader;
 
+    private boolean keepComments;
+    private boolean comment;
+
+    // Whether a line feed following the carriage return that ended the last line is still to be skipped.
+    private boolean skipLF;
+
     public char[] getLineBuffer() {
         return lineBuf;
     }
 
+    /**
+     * @param keepComments  true if comment and blank lines should be returned rather than skipped.
+     */
+    void setKeepComments(boolean keepComments) {
+        this.keepComments = keepComments;
+    }
+
+    /**
+     * @return true if the last line read was a comment or blank line, which are only returned if comments are kept.
+     */
+    boolean isComment() {
+        return comment;
+    }
+
     /**
      * Reads a line using the Reader and stores the line in "lineBuf".
      *
@@ -49,7 +86,7 @@ final class PropertyLineReader {
         boolean isNewLine = true;
         boolean appendedLineBegin = false;
         boolean precedingBackslash = false;
-        boolean skipLF = false;
+        comment = false;
 
         while (true) {
             if (inOff >= inLimit) {
@@ -57,13 +94,35 @@ final class PropertyLineReader {
                         : inStream.read(inByteBuf);
                 inOff = 0;
                 if (inLimit <= 0) {
-                    if (len == 0 || isCommentLine) {
+                    if (len == 0 || (isCommentLine && !keepComments)) {
                         return -1;
                     }
+                    comment = isCommentLine;
                     return len;
                 }
             }
 
+            if (inStream == null && !skipWhiteSpace && !isNewLine) {
+                // Copy the run of characters up to the next line end or backslash in one go.
+                int end = inOff;
+                while (end < inLimit) {
+                    final char ch = inCharBuf[end];
+                    if (ch == '\n' || ch == '\r' || ch == '\\') {
+                        break;
+                    }
+                    end++;
+                }
+                if (end > inOff) {
+                    final int runLength = end - inOff;
+                    ensureLineCapacity(len + runLength + 1);
+                    System.arraycopy(inCharBuf, inOff, lineBuf, len, runLength);
+                    len += runLength;
+                    inOff = end;
+                    precedingBackslash = false;
+                    continue;
+                }
+            }
+
             final char c;
             if (inStream != null) {
                 // The line below is equivalent to calling a
@@ -84,6 +143,11 @@ final class PropertyLineReader {
                     continue;
                 }
                 if (!appendedLineBegin && (c == '\r' || c == '\n')) {
+                    if (keepComments) {
+                        comment = true;
+                        skipLF = (c == '\r');
+                        return 0;
+                    }
                     continue;
                 }
                 skipWhiteSpace = false;
@@ -93,21 +157,15 @@ final class PropertyLineReader {
                 isNewLine = false;
                 if (c == '#' || c == '!') {
                     isCommentLine = true;
-                    continue;
+                    if (!keepComments) {
+                        continue;
+                    }
                 }
             }
 
             if (c != '\n' && c != '\r') {
                 lineBuf[len++] = c;
-                if (len == lineBuf.length) {
-                    int newLength = lineBuf.length * 2;
-                    if (newLength < 0) {
-                        newLength = Integer.MAX_VALUE;
-                    }
-                    char[] buf = new char[newLength];
-                    System.arraycopy(lineBuf, 0, buf, 0, lineBuf.length);
-                    lineBuf = buf;
-                }
+                ensureLineCapacity(len + 1);
                 // flip the preceding backslash flag
                 if (c == '\\') {
                     precedingBackslash = !precedingBackslash;
@@ -116,6 +174,11 @@ final class PropertyLineReader {
                 }
             } else {
                 // reached EOL
+                if (isCommentLine && keepComments) {
+                    comment = true;
+                    skipLF = (c == '\r');
+                    return len;
+                }
                 if (isCommentLine || len == 0) {
                     isCommentLine = false;
                     isNewLine = true;
@@ -142,9 +205,27 @@ final class PropertyLineReader {
                         skipLF = true;
                     }
                 } else {
+                    skipLF = (c == '\r');
                     return len;
                 }
             }
         }
     }
+
+    /**
+     * Grows the line buffer, if required, so that it holds at least capacity chars.
+     *
+     * @param capacity  Number of chars the line buffer must be able to hold.
+     */
+    private void ensureLineCapacity(int capacity) {
+        if (capacity > lineBuf.length) {
+            int newLength = Math.max(lineBuf.length * 2, capacity);
+            if (newLength < 0) {
+                newLength = Integer.MAX_VALUE;
+            }
+            final char[] buf = new char[newLength];
+            System.arraycopy(lineBuf, 0, buf, 0, lineBuf.length);
+            lineBuf = buf;
+        }
+    }
 }
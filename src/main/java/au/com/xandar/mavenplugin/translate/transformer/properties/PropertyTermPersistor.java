@@ -5,9 +5,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.Reader;
+import java.nio.charset.Charset;
 
 import au.com.xandar.mavenplugin.translate.OrderedTerms;
 import au.com.xandar.mavenplugin.translate.transformer.TermPersistor;
@@ -45,11 +44,11 @@ public final class PropertyTermPersistor implements TermPersistor {
      * @throws java.io.IOException if the file could not be read.
      */
     public OrderedTerms readTerms(File file) throws IOException {
-        final Reader reader = new InputStreamReader(new FileInputStream(file), sourceFileEncoding);
+        final FileInputStream stream = new FileInputStream(file);
         try {
-            return persistor.load(reader);
+            return persistor.load(stream.getChannel(), Charset.forName(sourceFileEncoding));
         } finally {
-            reader.close();
+            stream.close();
         }
     }
 
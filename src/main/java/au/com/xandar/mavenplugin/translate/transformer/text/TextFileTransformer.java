@@ -0,0 +1,104 @@
+package au.com.xandar.mavenplugin.translate.transformer.text;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.concurrent.ExecutorService;
+
+import au.com.xandar.mavenplugin.translate.transformer.ResourceTransformer;
+import au.com.xandar.mavenplugin.translate.transformer.TargetFileWriter;
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslatorAdapter;
+import au.com.xandar.mavenplugin.translate.translator.Translator;
+
+/**
+ * Responsible for transforming a text file from one language to another.
+ * <p/>
+ * The text is split into paragraphs, and paragraphs longer than maxSegmentLength into sentences,
+ * so that no request to the translation service exceeds maxSegmentLength characters.
+ * The document is read and written as its segments are translated, so only the batches in flight are held in memory.
+ */
+public final class TextFileTransformer implements ResourceTransformer {
+
+    private final String sourceLanguage;
+    private final Translator translator;
+    private String sourceFileEncoding = "UTF-8";
+    private String targetFileEncoding = "UTF-8";
+    private int maxSegmentLength = 4000;
+    private int batchSize = 100;
+    private ExecutorService executor;
+    private int maxBatchesInFlight = 1;
+
+    public TextFileTransformer(String sourceLanguage, Translator translator) {
+        this.sourceLanguage = sourceLanguage;
+        this.translator = translator;
+    }
+
+    /**
+     * @param sourceFileEncoding    File encoding of the source file. Defaults to UTF-8.
+     */
+    public void setSourceFileEncoding(String sourceFileEncoding) {
+        this.sourceFileEncoding = sourceFileEncoding;
+    }
+
+    /**
+     * @param targetFileEncoding    File encoding in which to write the translated file. Defaults to UTF-8.
+     */
+    public void setTargetFileEncoding(String targetFileEncoding) {
+        this.targetFileEncoding = targetFileEncoding;
+    }
+
+    /**
+     * @param maxSegmentLength  Maximum number of characters to send for translation at once. Defaults to 4000.
+     */
+    public void setMaxSegmentLength(int maxSegmentLength) {
+        this.maxSegmentLength = maxSegmentLength;
+    }
+
+    /**
+     * @param batchSize Maximum number of segments to send for translation at once. Defaults to 100.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Allows batches of segments to be translated while the rest of the file is read.
+     *
+     * @param executor              ExecutorService on which to translate, or null to translate on the reading thread.
+     * @param maxBatchesInFlight    Maximum number of batches of each file to have waiting on translation at once.
+     */
+    public void setExecutor(ExecutorService executor, int maxBatchesInFlight) {
+        this.executor = executor;
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Translates the source file, writing the result as it goes to a temporary file
+     * that replaces the target file once the whole file has been translated.
+     */
+    public void transform(File sourceFile, File targetFile, String targetLanguage) throws IOException {
+        final Reader reader = new InputStreamReader(new FileInputStream(sourceFile), sourceFileEncoding);
+        try {
+            final TargetFileWriter target = new TargetFileWriter(targetFile, targetFileEncoding);
+            try {
+                final TextFileWriter documentWriter = new TextFileWriter(new AsyncTranslatorAdapter(translator, executor), sourceLanguage, targetLanguage,
+                        new TextSegmenter(reader, maxSegmentLength), target.getWriter());
+                documentWriter.setBatchSize(batchSize);
+                documentWriter.setMaxBatchLength(maxSegmentLength);
+                documentWriter.setMaxBatchesInFlight(maxBatchesInFlight);
+                documentWriter.write();
+            } catch (IOException e) {
+                target.discard();
+                throw e;
+            } catch (RuntimeException e) {
+                target.discard();
+                throw e;
+            }
+            target.commit();
+        } finally {
+            reader.close();
+        }
+    }
+}
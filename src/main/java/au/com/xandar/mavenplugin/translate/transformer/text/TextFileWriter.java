@@ -0,0 +1,173 @@
+package au.com.xandar.mavenplugin.translate.transformer.text;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import au.com.xandar.mavenplugin.translate.translator.AsyncTranslator;
+import au.com.xandar.mavenplugin.translate.translator.TranslationException;
+
+/**
+ * One use class that writes the segments of a text document translated into a target language.
+ * <p/>
+ * Segments are translated in batches of no more than batchSize segments and maxBatchLength characters,
+ * with up to maxBatchesInFlight batches waiting on the AsyncTranslator at once.
+ * Each batch is written, in document order, as soon as it and every batch before it has been translated.
+ */
+final class TextFileWriter {
+
+    private final TextSegmenter segmenter;
+    private final Writer document;
+
+    // Segments queued for translation, and the number of characters they hold.
+    private final List<TextSegmenter.Segment> pendingSegments = new ArrayList<TextSegmenter.Segment>();
+    private int pendingLength;
+    private int batchSize = 100;
+    private int maxBatchLength = Integer.MAX_VALUE;
+
+    // Batches that have been submitted for translation, in document order.
+    private final LinkedList<Batch> batchesInFlight = new LinkedList<Batch>();
+    private int maxBatchesInFlight = 1;
+
+    private final String sourceLanguage;
+    private final String targetLanguage;
+    private final AsyncTranslator translator;
+
+    TextFileWriter(AsyncTranslator translator, String sourceLanguage, String targetLanguage, TextSegmenter segmenter, Writer document) {
+        this.translator = translator;
+        this.sourceLanguage = sourceLanguage;
+        this.targetLanguage = targetLanguage;
+        this.segmenter = segmenter;
+        this.document = document;
+    }
+
+    /**
+     * @param batchSize Maximum number of segments to translate at once.
+     */
+    void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param maxBatchLength    Maximum number of characters to translate at once. A longer segment is translated on its own.
+     */
+    void setMaxBatchLength(int maxBatchLength) {
+        this.maxBatchLength = maxBatchLength;
+    }
+
+    /**
+     * @param maxBatchesInFlight    Maximum number of batches to have waiting on translation at once.
+     */
+    void setMaxBatchesInFlight(int maxBatchesInFlight) {
+        this.maxBatchesInFlight = maxBatchesInFlight;
+    }
+
+    /**
+     * Translates each segment of the document, writing the document as the translations become available.
+     *
+     * @throws IOException if the document could not be read or written.
+     */
+    public void write() throws IOException {
+        TextSegmenter.Segment segment;
+        while ((segment = segmenter.next()) != null) {
+            final int length = segment.getText().length();
+            if (!pendingSegments.isEmpty()
+                    && (pendingSegments.size() >= batchSize || pendingLength + length > maxBatchLength)) {
+                submitPendingSegments();
+                writeTranslatedBatches(maxBatchesInFlight);
+            }
+            pendingSegments.add(segment);
+            pendingLength += length;
+        }
+
+        submitPendingSegments();
+        writeTranslatedBatches(0);
+    }
+
+    /**
+     * Submits all of the queued segments for translation as a single batch.
+     */
+    private void submitPendingSegments() {
+        if (pendingSegments.isEmpty()) {
+            return;
+        }
+
+        final List<String> texts = new ArrayList<String>(pendingSegments.size());
+        for (final TextSegmenter.Segment segment : pendingSegments) {
+            if (segment.getText().length() > 0) {
+                texts.add(segment.getText());
+            }
+        }
+        final Future<List<String>> translations = translator.translateAllAsync(texts, sourceLanguage, targetLanguage);
+        batchesInFlight.add(new Batch(translations, new ArrayList<TextSegmenter.Segment>(pendingSegments)));
+
+        pendingSegments.clear();
+        pendingLength = 0;
+    }
+
+    /**
+     * Writes each batch that has been translated, in document order, so a completed batch waits for any batch before it.
+     *
+     * @param maxRemaining  Wait for translations until no more than this many batches remain in flight.
+     * @throws IOException if the document could not be written.
+     */
+    private void writeTranslatedBatches(int maxRemaining) throws IOException {
+        while (!batchesInFlight.isEmpty()) {
+            final Batch batch = batchesInFlight.getFirst();
+            if (!batch.translations.isDone() && batchesInFlight.size() <= maxRemaining) {
+                break;
+            }
+            batchesInFlight.removeFirst();
+
+            final List<String> translations = getTranslations(batch);
+            int nrTranslated = 0;
+            for (final TextSegmenter.Segment segment : batch.segments) {
+                document.write(segment.getSeparator());
+                if (segment.getText().length() > 0) {
+                    document.write(translations.get(nrTranslated++));
+                }
+            }
+        }
+    }
+
+    private List<String> getTranslations(Batch batch) {
+        try {
+            return batch.translations.get();
+        } catch (InterruptedException e) {
+            cancelBatchesInFlight();
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for translation", e);
+        } catch (ExecutionException e) {
+            cancelBatchesInFlight();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TranslationException("Could not translate", e.getCause());
+        }
+    }
+
+    private void cancelBatchesInFlight() {
+        for (final Batch batch : batchesInFlight) {
+            batch.translations.cancel(true);
+        }
+        batchesInFlight.clear();
+    }
+
+    /**
+     * Segments submitted for translation together.
+     */
+    private static final class Batch {
+
+        private final Future<List<String>> translations;
+        private final List<TextSegmenter.Segment> segments;
+
+        private Batch(Future<List<String>> translations, List<TextSegmenter.Segment> segments) {
+            this.translations = translations;
+            this.segments = segments;
+        }
+    }
+}
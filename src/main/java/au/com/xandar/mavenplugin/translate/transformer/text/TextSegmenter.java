@@ -0,0 +1,174 @@
+package au.com.xandar.mavenplugin.translate.transformer.text;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a text document into segments that can each be translated on their own.
+ * <p/>
+ * Each paragraph, ie text ending at a blank line, is a segment. A paragraph longer than maxLength is split after
+ * the last sentence that fits, or failing that at the last white space that fits, so that no segment is longer than maxLength.
+ * The white space between segments is kept apart from the text so that the document can be reassembled exactly.
+ * <p/>
+ * The document is read as segments are requested, so only the segment being built is held in memory.
+ */
+final class TextSegmenter {
+
+    /**
+     * Text to translate and the white space that precedes it in the document.
+     */
+    static final class Segment {
+
+        private final String separator;
+        private final String text;
+
+        Segment(String separator, String text) {
+            this.separator = separator;
+            this.text = text;
+        }
+
+        /**
+         * @return white space preceding the text, to be copied as is.
+         */
+        String getSeparator() {
+            return separator;
+        }
+
+        /**
+         * @return text to translate, which is empty for the white space at the end of the document.
+         */
+        String getText() {
+            return text;
+        }
+    }
+
+    private final Reader reader;
+    private final int maxLength;
+
+    private final char[] buffer = new char[8192];
+    private int bufferOff;
+    private int bufferLimit;
+
+    // White space preceding the text of the segment being built, and its text.
+    private final StringBuilder separator = new StringBuilder();
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * @param reader    Reader from which to read the document.
+     * @param maxLength Maximum number of characters in the text of a segment, at least 2.
+     */
+    TextSegmenter(Reader reader, int maxLength) {
+        if (maxLength < 2) {
+            throw new IllegalArgumentException("maxLength must be at least 2 : " + maxLength);
+        }
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the next segment of the document, or null once the whole document has been read.
+     * @throws IOException if the document could not be read.
+     */
+    Segment next() throws IOException {
+        while (true) {
+            final int c = read();
+            if (c < 0) {
+                if (text.length() > 0) {
+                    return takeSegment(text.length());
+                }
+                if (separator.length() > 0) {
+                    final Segment segment = new Segment(separator.toString(), "");
+                    separator.setLength(0);
+                    return segment;
+                }
+                return null;
+            }
+
+            if (text.length() == 0 && Character.isWhitespace(c)) {
+                separator.append((char) c);
+                continue;
+            }
+
+            text.append((char) c);
+            if (c == '\n' && endsWithBlankLine()) {
+                return takeSegment(text.length());
+            }
+            if (text.length() > maxLength) {
+                return takeSegment(getSplitIndex());
+            }
+        }
+    }
+
+    /**
+     * Takes the text up to end as a segment, and keeps the white space that follows it as the separator of the next segment.
+     *
+     * @param end   Index of the end of the segment within the text.
+     * @return Segment holding the text up to end, without any trailing white space.
+     */
+    private Segment takeSegment(int end) {
+        int textEnd = end;
+        while (textEnd > 0 && Character.isWhitespace(text.charAt(textEnd - 1))) {
+            textEnd--;
+        }
+        int nextStart = end;
+        while (nextStart < text.length() && Character.isWhitespace(text.charAt(nextStart))) {
+            nextStart++;
+        }
+
+        final Segment segment = new Segment(separator.toString(), text.substring(0, textEnd));
+        separator.setLength(0);
+        separator.append(text, textEnd, nextStart);
+        text.delete(0, nextStart);
+        return segment;
+    }
+
+    /**
+     * @return true if the line just ended contained nothing but white space.
+     */
+    private boolean endsWithBlankLine() {
+        for (int i = text.length() - 2; i >= 0; i--) {
+            final char c = text.charAt(i);
+            if (c == '\n') {
+                return true;
+            }
+            if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return index at which to split text that is longer than maxLength,
+     *          after the last sentence that fits, else at the last white space that fits, else at maxLength.
+     */
+    private int getSplitIndex() {
+        for (int i = maxLength; i > 1; i--) {
+            if (Character.isWhitespace(text.charAt(i)) && isSentenceEnd(text.charAt(i - 1))) {
+                return i;
+            }
+        }
+        for (int i = maxLength; i > 0; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        // Don't split a surrogate pair.
+        return Character.isHighSurrogate(text.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+    }
+
+    private boolean isSentenceEnd(char c) {
+        return (c == '.' || c == '!' || c == '?' || c == '\u3002');
+    }
+
+    private int read() throws IOException {
+        if (bufferOff >= bufferLimit) {
+            bufferLimit = reader.read(buffer);
+            bufferOff = 0;
+            if (bufferLimit <= 0) {
+                return -1;
+            }
+        }
+        return buffer[bufferOff++];
+    }
+}
@@ -0,0 +1,113 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for a Translator whose service can translate a batch of texts in a single request.
+ * <p/>
+ * Splits the texts into requests of at most maxTextsPerRequest texts and maxCharactersPerRequest characters,
+ * though a single text longer than that is still sent on its own. Empty texts are not sent to the service,
+ * they translate to an empty string, and each translation is put back in the place of the text it came from.
+ * <p/>
+ * Instances are safe for use by multiple threads if {@link #execute(List, String, String)} is.
+ */
+public abstract class AbstractBatchTranslator implements Translator {
+
+    private final int maxTextsPerRequest;
+    private final int maxCharactersPerRequest;
+    private final AtomicLong nrRemoteCalls = new AtomicLong();
+
+    private boolean debug;
+
+    /**
+     * @param maxTextsPerRequest      Maximum number of texts the service will accept in a single request.
+     * @param maxCharactersPerRequest Maximum number of characters of text the service will accept in a single request.
+     */
+    protected AbstractBatchTranslator(int maxTextsPerRequest, int maxCharactersPerRequest) {
+        this.maxTextsPerRequest = maxTextsPerRequest;
+        this.maxCharactersPerRequest = maxCharactersPerRequest;
+    }
+
+    /**
+     * Sends the texts to the service in a single request.
+     *
+     * @param batch             Non empty texts to translate, within maxTextsPerRequest and maxCharactersPerRequest.
+     * @param sourceLanguage    Language of the texts.
+     * @param targetLanguage    Language into which to translate them.
+     * @return the translation of each text, in the same order.
+     * @throws TranslationException if the texts could not be translated.
+     */
+    protected abstract List<String> execute(List<String> batch, String sourceLanguage, String targetLanguage);
+
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    /**
+     * @return number of requests made to the service.
+     */
+    public long getNrRemoteCalls() {
+        return nrRemoteCalls.get();
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        if (debug) System.out.println("Translating [" + sourceLanguage + "] : '" + text + "'");
+
+        if (text.length() == 0) {
+            return ""; // The services throw an Exception when trying to translate an empty string.
+        }
+
+        final List<String> batch = new ArrayList<String>(1);
+        batch.add(text.toString());
+        nrRemoteCalls.incrementAndGet();
+        final String output = execute(batch, sourceLanguage, targetLanguage).get(0);
+        if (debug) System.out.println("To [" + targetLanguage + "] : '" + output + "'");
+        return output;
+    }
+
+    /**
+     * Translates the texts using as few requests to the service as possible.
+     * Empty texts are not sent to the service.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        final List<String> translations = new ArrayList<String>(texts.size());
+        final List<String> batch = new ArrayList<String>();
+        final List<Integer> batchIndexes = new ArrayList<Integer>();
+        int batchCharacters = 0;
+        for (final CharSequence text : texts) {
+            if (text.length() > 0) {
+                if (!batch.isEmpty() && batchCharacters + text.length() > maxCharactersPerRequest) {
+                    translateBatch(batch, batchIndexes, translations, sourceLanguage, targetLanguage);
+                    batchCharacters = 0;
+                }
+                batchIndexes.add(translations.size());
+                batch.add(text.toString());
+                batchCharacters += text.length();
+            }
+            translations.add(""); // Replaced once the batch containing the text is translated.
+            if (batch.size() == maxTextsPerRequest) {
+                translateBatch(batch, batchIndexes, translations, sourceLanguage, targetLanguage);
+                batchCharacters = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            translateBatch(batch, batchIndexes, translations, sourceLanguage, targetLanguage);
+        }
+        return translations;
+    }
+
+    private void translateBatch(List<String> batch, List<Integer> batchIndexes, List<String> translations, String sourceLanguage, String targetLanguage) {
+        if (debug) System.out.println("Translating " + batch.size() + " texts [" + sourceLanguage + "] : " + batch);
+
+        nrRemoteCalls.incrementAndGet();
+        final List<String> output = execute(batch, sourceLanguage, targetLanguage);
+        if (debug) System.out.println("To [" + targetLanguage + "] : " + output);
+        for (int i = 0; i < output.size(); i++) {
+            translations.set(batchIndexes.get(i), output.get(i));
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+}
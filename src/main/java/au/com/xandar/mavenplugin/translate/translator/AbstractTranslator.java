@@ -0,0 +1,20 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for a Translator that can only translate one text at a time.
+ * <p/>
+ * Translates a batch of texts by translating each of them in turn.
+ */
+public abstract class AbstractTranslator implements Translator {
+
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        final List<String> translations = new ArrayList<String>(texts.size());
+        for (final CharSequence text : texts) {
+            translations.add(translate(text, sourceLanguage, targetLanguage));
+        }
+        return translations;
+    }
+}
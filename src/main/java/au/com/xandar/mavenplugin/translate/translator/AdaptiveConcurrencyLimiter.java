@@ -0,0 +1,151 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+/**
+ * Limits the number of requests in flight to a translation service, adapting the limit to how the service copes.
+ * <p/>
+ * The limit grows additively, by about one for each limit's worth of requests that complete in good time,
+ * and is halved when the service throttles or fails a request or when its latency rises well above its usual latency.
+ * It is halved at most once per round trip, so that one burst of failures doesn't collapse it.
+ * The limit therefore settles at the highest concurrency the service sustains.
+ * <p/>
+ * Instances are safe for use by multiple threads and are intended to be shared by all threads calling a service.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_LATENCY_WEIGHT = 0.2;
+    private static final double LONG_LATENCY_WEIGHT = 0.02;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final int WARM_UP_SAMPLES = 10;
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private int inFlight;
+    private int peakInFlight;
+
+    private double shortLatency;
+    private double longLatency;
+    private long samples;
+    private long lastDecrease;
+    private long decreases;
+    private long throttles;
+
+    /**
+     * @param initialLimit  Limit with which to start.
+     * @param minLimit      Least the limit may fall to.
+     * @param maxLimit      Most the limit may grow to.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * Waits until there is room under the limit for another request.
+     *
+     * @throws TranslationException if interrupted while waiting.
+     */
+    public synchronized void acquire() {
+        try {
+            while (inFlight >= (int) limit) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for concurrency limit", e);
+        }
+        inFlight++;
+        peakInFlight = Math.max(peakInFlight, inFlight);
+    }
+
+    /**
+     * Records a request that the service completed.
+     *
+     * @param nanos Time taken by the request.
+     */
+    public synchronized void onSuccess(long nanos) {
+        final boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+        final long now = System.nanoTime();
+
+        samples++;
+        if (samples == 1) {
+            shortLatency = nanos;
+            longLatency = nanos;
+        } else {
+            shortLatency += SHORT_LATENCY_WEIGHT * (nanos - shortLatency);
+            longLatency += LONG_LATENCY_WEIGHT * (nanos - longLatency);
+        }
+
+        if (samples > WARM_UP_SAMPLES && shortLatency > LATENCY_TOLERANCE * longLatency) {
+            decrease(now);
+        } else if (saturated) {
+            // Only grow the limit while it is being used, otherwise it says nothing about the service.
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Records a request that the service throttled or failed because it is overloaded.
+     *
+     * @param throttled true if the service explicitly throttled the request, e.g. with a 429 response.
+     */
+    public synchronized void onOverload(boolean throttled) {
+        inFlight--;
+        if (throttled) {
+            throttles++;
+        }
+        decrease(System.nanoTime());
+        notifyAll();
+    }
+
+    /**
+     * Records a request that failed for a reason that says nothing about the service's load.
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+        notifyAll();
+    }
+
+    /**
+     * @return current limit on the number of requests in flight.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return most requests that have been in flight at once.
+     */
+    public synchronized int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    /**
+     * @return number of times the limit has been cut.
+     */
+    public synchronized long getDecreases() {
+        return decreases;
+    }
+
+    /**
+     * @return number of requests the service has explicitly throttled.
+     */
+    public synchronized long getThrottles() {
+        return throttles;
+    }
+
+    private void decrease(long now) {
+        // Cut at most once per round trip, as the requests already in flight were sent under the old limit.
+        if (decreases > 0 && now - lastDecrease < shortLatency) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        decreases++;
+    }
+}
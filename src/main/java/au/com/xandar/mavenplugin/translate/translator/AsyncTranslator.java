@@ -0,0 +1,30 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Responsible for translating text from one language to another without blocking the caller,
+ * so that many translation requests can be in flight at once.
+ * <p/>
+ * Any failure to translate is reported by the returned Future throwing an ExecutionException
+ * whose cause is a {@link TranslationException}.
+ */
+public interface AsyncTranslator {
+
+    /**
+     * @param text              Text to translate.
+     * @param sourceLanguage    Source language.
+     * @param targetLanguage    Language into which to translate.
+     * @return Future that will hold the text translated into the target language.
+     */
+    public Future<String> translateAsync(CharSequence text, String sourceLanguage, String targetLanguage);
+
+    /**
+     * @param texts             Texts to translate.
+     * @param sourceLanguage    Source language.
+     * @param targetLanguage    Language into which to translate.
+     * @return Future that will hold the texts translated into the target language, in the same order as the texts.
+     */
+    public Future<List<String>> translateAllAsync(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage);
+}
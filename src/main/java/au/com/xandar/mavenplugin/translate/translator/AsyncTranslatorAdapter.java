@@ -0,0 +1,60 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Adapts a synchronous {@link Translator} (and any decorators around it) to an {@link AsyncTranslator}.
+ * <p/>
+ * Translations are run on the supplied ExecutorService, so the number of requests in flight is bounded by its threads.
+ * Without an ExecutorService each translation is run by the calling thread and the returned Future is already done.
+ */
+public final class AsyncTranslatorAdapter implements AsyncTranslator {
+
+    private final Translator translator;
+    private final ExecutorService executor;
+
+    /**
+     * @param translator    Translator with which to translate on the calling thread.
+     */
+    public AsyncTranslatorAdapter(Translator translator) {
+        this(translator, null);
+    }
+
+    /**
+     * @param translator    Translator with which to translate.
+     * @param executor      ExecutorService on which to translate, or null to translate on the calling thread.
+     */
+    public AsyncTranslatorAdapter(Translator translator, ExecutorService executor) {
+        this.translator = translator;
+        this.executor = executor;
+    }
+
+    public Future<String> translateAsync(final CharSequence text, final String sourceLanguage, final String targetLanguage) {
+        return execute(new Callable<String>() {
+            public String call() {
+                return translator.translate(text, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    public Future<List<String>> translateAllAsync(final List<? extends CharSequence> texts, final String sourceLanguage, final String targetLanguage) {
+        return execute(new Callable<List<String>>() {
+            public List<String> call() {
+                return translator.translateAll(texts, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    private <T> Future<T> execute(Callable<T> callable) {
+        if (executor != null) {
+            return executor.submit(callable);
+        }
+        final FutureTask<T> task = new FutureTask<T>(callable);
+        task.run();
+        return task;
+    }
+}
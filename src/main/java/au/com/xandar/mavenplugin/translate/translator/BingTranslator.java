@@ -1,85 +1,114 @@
 package au.com.xandar.mavenplugin.translate.translator;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
-import com.memetix.mst.language.Language;
-import com.memetix.mst.translate.Translate;
+import org.json.JSONArray;
+import org.json.JSONException;
 
 /**
- * Responsible translating text using the Bing translation API.
+ * Responsible for translating text using the Bing translation API.
  * <p/>
+ * Each instance holds its own API key, referrer and {@link HttpTransport}, rather than the static configuration
+ * of a client library, so instances with different keys can be used in the same JVM and from many threads at once.
  *
  * User: William
  * Date: 25/10/11
  *
- * See http://code.google.com/p/microsoft-translator-java-api/
+ * See http://msdn.microsoft.com/en-us/library/ff512402.aspx
  */
-public final class BingTranslator implements Translator {
+public final class BingTranslator extends AbstractBatchTranslator {
 
-    private boolean debug;
-    private int nrRemoteCalls = 0;
-    private int nrCallsBeforePause = 100;
-    private int millisToPause = 5000;
+    private static final String SERVICE_URL = "https://api.microsofttranslator.com/V2/Ajax.svc/TranslateArray";
+
+    /**
+     * Maximum number of texts the service will accept in a single request.
+     */
+    public static final int MAX_TEXTS_PER_REQUEST = 100;
+
+    /**
+     * Maximum number of characters of text the service will accept in a single request.
+     */
+    public static final int MAX_CHARACTERS_PER_REQUEST = 10000;
+
+    private final HttpTransport transport;
+
+    private String serviceUrl = SERVICE_URL;
+    private String apiKey;
+    private String httpReferrer = "http://localhost";
 
     public BingTranslator() {
-        Translate.setHttpReferrer("http://localhost");
+        this(new HttpTransport());
     }
 
-    public void setApiKey(String apiKey) {
-        Translate.setKey(apiKey);
+    /**
+     * @param transport HttpTransport with which to send requests to the service.
+     */
+    public BingTranslator(HttpTransport transport) {
+        super(MAX_TEXTS_PER_REQUEST, MAX_CHARACTERS_PER_REQUEST);
+        this.transport = transport;
     }
 
-    public void setNrCallsBeforePause(int nrCallsBeforePause) {
-        this.nrCallsBeforePause = nrCallsBeforePause;
+    /**
+     * @param serviceUrl    URL of the service. Defaults to the public service, set it to test against a stand in.
+     */
+    public void setServiceUrl(String serviceUrl) {
+        this.serviceUrl = serviceUrl;
     }
 
-    public void setMillisToPause(int millisToPause) {
-        this.millisToPause = millisToPause;
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
     }
 
-    public void setDebug(boolean debug) {
-        this.debug = debug;
+    /**
+     * @param httpReferrer  Referrer to send with each request. Defaults to http://localhost.
+     */
+    public void setHttpReferrer(String httpReferrer) {
+        this.httpReferrer = httpReferrer;
     }
 
-    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
-        final Language sourceLang = Language.fromString(sourceLanguage);
-        final Language targetLang = Language.fromString(targetLanguage);
+    @Override
+    protected List<String> execute(List<String> batch, String sourceLanguage, String targetLanguage) {
+        // Texts are posted so that a large batch doesn't exceed the maximum length of a URL.
+        final StringBuilder form = new StringBuilder();
+        HttpTransport.appendParameter(form, "appId", apiKey);
+        HttpTransport.appendParameter(form, "from", sourceLanguage);
+        HttpTransport.appendParameter(form, "to", targetLanguage);
+        HttpTransport.appendParameter(form, "texts", new JSONArray(batch).toString());
 
-        // Replace any \n with an untranslatable LINE_END_TOKEN
-        if (debug) System.out.println("Translating [" + sourceLang + "] : '" + text + "'");
+        final Map<String, String> headers = new HashMap<String, String>();
+        headers.put("Referer", httpReferrer);
 
-        if ("".equals(text)) {
-            return ""; // GoogleTranslate throws an Exception when trying to translate an empty string.
-        }
+        final String response = transport.post(serviceUrl, headers, form.toString());
+        return parseResponse(response, batch.size());
+    }
 
-        if (++nrRemoteCalls % nrCallsBeforePause ==0){
-            System.out.print("\r pausing "+ millisToPause /1000+" seconds every "+ nrCallsBeforePause +" calls to google");
-            try {
-                Thread.sleep(millisToPause);
-            } catch (InterruptedException e) {
-                throw new TranslationException("Interrupted waiting ", e);
-            }
-            System.out.print("\r resuming...");
+    /**
+     * @param response  Body of a response from the service.
+     * @param nrTexts   Number of texts that were sent.
+     * @return the translation of each text.
+     * @throws TranslationException if the response doesn't hold a translation for each text.
+     */
+    static List<String> parseResponse(String response, int nrTexts) {
+        // The service starts its responses with a byte order mark, and reports errors as a quoted message rather than an array.
+        final String body = response.startsWith("\uFEFF") ? response.substring(1) : response;
+        if (!body.trim().startsWith("[")) {
+            throw new TranslationException("Service rejected the request : " + body, null);
         }
-
         try {
-            final String output = Translate.execute(text.toString(), sourceLang, targetLang);
-            if (debug) System.out.println("To [" + targetLang + "] : '" + output + "'");
-            if (debug) System.out.println();
-            //printChars(output);
+            final JSONArray translations = new JSONArray(body);
+            if (translations.length() != nrTexts) {
+                throw new TranslationException("Expected " + nrTexts + " translations but received " + translations.length(), null);
+            }
+            final List<String> output = new ArrayList<String>(nrTexts);
+            for (int i = 0; i < nrTexts; i++) {
+                output.add(translations.getJSONObject(i).getString("TranslatedText"));
+            }
             return output;
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new TranslationException("Could not translate : '" + text + "'", e);
+        } catch (JSONException e) {
+            throw new TranslationException("Could not understand response : " + body, e);
         }
     }
-
-    private void printChars(CharSequence text) {
-        for (int i = 0; i < text.length(); i++) {
-            final char ch = text.charAt(i);
-            System.out.println("i=" + i + "   chr=" + ch + "   (int) ch=" + (int) ch);
-        }
-        System.out.println("end\n");
-    }
-
 }
@@ -0,0 +1,53 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the calls made to a translation service for one language pair and how long they took.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class CallStatistics {
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong texts = new AtomicLong();
+    private final AtomicLong characters = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * @param nrTexts       Number of texts sent in the call.
+     * @param nrCharacters  Number of characters sent in the call.
+     * @param nanos         Time taken by the call in nanoseconds.
+     * @param failed        true if the call failed.
+     */
+    void record(int nrTexts, long nrCharacters, long nanos, boolean failed) {
+        calls.incrementAndGet();
+        if (failed) {
+            failures.incrementAndGet();
+        }
+        texts.addAndGet(nrTexts);
+        characters.addAndGet(nrCharacters);
+        latency.record(nanos);
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getTexts() {
+        return texts.get();
+    }
+
+    public long getCharacters() {
+        return characters.get();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
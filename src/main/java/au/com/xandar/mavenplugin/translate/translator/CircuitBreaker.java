@@ -0,0 +1,129 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stops requests being sent to a translation service that keeps failing, so a degraded service is given time to recover.
+ * <p/>
+ * After a number of consecutive failures the breaker opens and callers wait instead of sending requests.
+ * Once the open period has passed a single trial request is let through: if it succeeds the breaker closes,
+ * otherwise it opens again for twice as long, up to a maximum.
+ * A failure that tells us how long to wait (e.g. 429 with Retry-After) opens the breaker for at least that long.
+ * <p/>
+ * Instances are safe for use by multiple threads and are intended to be shared by all threads calling a service.
+ */
+public final class CircuitBreaker {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long maxOpenNanos;
+
+    private int consecutiveFailures;
+    private long currentOpenNanos;
+    private long openUntil;
+    private boolean open;
+    private boolean trialInFlight;
+    private final AtomicLong trips = new AtomicLong();
+
+    /**
+     * @param failureThreshold  Number of consecutive failures that opens the breaker.
+     * @param openMillis        Time for which the breaker first stays open.
+     * @param maxOpenMillis     Maximum time for which the breaker stays open.
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, long maxOpenMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openMillis * NANOS_PER_MILLI;
+        this.maxOpenNanos = Math.max(openMillis, maxOpenMillis) * NANOS_PER_MILLI;
+        this.currentOpenNanos = openNanos;
+    }
+
+    /**
+     * Waits until a request may be sent.
+     *
+     * @param deadline  System#nanoTime after which to stop waiting.
+     * @return true if the request may be sent, false if the deadline passed while the breaker was open.
+     * @throws TranslationException if interrupted while waiting.
+     */
+    public synchronized boolean acquire(long deadline) {
+        try {
+            while (true) {
+                final long now = System.nanoTime();
+                if (!open) {
+                    return true;
+                }
+                if (!trialInFlight && now - openUntil >= 0) {
+                    trialInFlight = true;
+                    return true;
+                }
+                if (now - deadline >= 0) {
+                    return false;
+                }
+                // Wake when the breaker can let a trial through, or at the deadline, or when the trial completes.
+                final long waitUntil = (!trialInFlight && openUntil - deadline < 0) ? openUntil : deadline;
+                final long waitNanos = Math.max(1, waitUntil - now);
+                wait(waitNanos / NANOS_PER_MILLI, (int) (waitNanos % NANOS_PER_MILLI));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for circuit breaker", e);
+        }
+    }
+
+    /**
+     * Records a request that the service handled, closing the breaker.
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        currentOpenNanos = openNanos;
+        if (open) {
+            open = false;
+            trialInFlight = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Records a request that failed because the service is unavailable or overloaded.
+     *
+     * @param retryAfterMillis  Milliseconds the service asked us to wait, or -1 if it didn't say.
+     */
+    public synchronized void onFailure(long retryAfterMillis) {
+        consecutiveFailures++;
+        final boolean trialFailed = open && trialInFlight;
+        if (trialFailed) {
+            currentOpenNanos = Math.min(maxOpenNanos, currentOpenNanos * 2);
+        }
+        if (trialFailed || consecutiveFailures >= failureThreshold || retryAfterMillis > 0) {
+            final long now = System.nanoTime();
+            final long until = now + Math.max(currentOpenNanos, retryAfterMillis * NANOS_PER_MILLI);
+            if (!open) {
+                trips.incrementAndGet();
+                openUntil = until;
+            } else if (until - openUntil > 0) {
+                openUntil = until;
+            }
+            open = true;
+            trialInFlight = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Releases the trial request without recording an outcome, e.g. when it failed for a reason unrelated to the service's health.
+     */
+    public synchronized void release() {
+        if (trialInFlight) {
+            trialInFlight = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return number of times the breaker has opened.
+     */
+    public long getTrips() {
+        return trips.get();
+    }
+}
@@ -0,0 +1,70 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.List;
+
+/**
+ * Responsible for holding back requests to a translation service beyond the limit of an {@link AdaptiveConcurrencyLimiter},
+ * and for telling the limiter how each request fared.
+ * <p/>
+ * A 429 or 503 response counts as throttling, and any other transient failure as a sign of overload.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class ConcurrencyLimitDecorator implements Translator {
+
+    private final Translator translator;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /**
+     * @param translator    Translation service to which to send the requests.
+     * @param limiter       Limiter shared by every request to the service.
+     */
+    public ConcurrencyLimitDecorator(Translator translator, AdaptiveConcurrencyLimiter limiter) {
+        this.translator = translator;
+        this.limiter = limiter;
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        limiter.acquire();
+        final long start = System.nanoTime();
+        try {
+            final String translation = translator.translate(text, sourceLanguage, targetLanguage);
+            limiter.onSuccess(System.nanoTime() - start);
+            return translation;
+        } catch (RuntimeException e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        limiter.acquire();
+        final long start = System.nanoTime();
+        try {
+            final List<String> translations = translator.translateAll(texts, sourceLanguage, targetLanguage);
+            limiter.onSuccess(System.nanoTime() - start);
+            return translations;
+        } catch (RuntimeException e) {
+            onFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return limiter through which every request passes.
+     */
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    private void onFailure(RuntimeException failure) {
+        final int statusCode = RetryingTranslator.getStatusCode(failure);
+        if (statusCode == 429 || statusCode == 503) {
+            limiter.onOverload(true);
+        } else if (RetryingTranslator.isTransient(failure, statusCode)) {
+            limiter.onOverload(false);
+        } else {
+            limiter.onIgnore();
+        }
+    }
+}
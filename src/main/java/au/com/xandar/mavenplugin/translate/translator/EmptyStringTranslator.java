@@ -1,5 +1,9 @@
 package au.com.xandar.mavenplugin.translate.translator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Responsible providing a blank translation of a String.
  * <p/>
@@ -20,4 +24,14 @@ public final class EmptyStringTranslator implements Translator {
     public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
         return "";
     }
+
+    /**
+     * @param texts             Texts to translate.
+     * @param sourceLanguage    ignored.
+     * @param targetLanguage    ignored.
+     * @return an empty String for each text.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        return new ArrayList<String>(Collections.nCopies(texts.size(), ""));
+    }
 }
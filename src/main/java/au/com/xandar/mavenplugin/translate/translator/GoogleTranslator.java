@@ -1,10 +1,19 @@
 package au.com.xandar.mavenplugin.translate.translator;
 
-import com.google.api.translate.Language;
-import com.google.api.translate.TranslateV2;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
- * Responsible translating text using the Google translation API.
+ * Responsible for translating text using the Google translation API.
+ * <p/>
+ * Each instance holds its own API key, referrer and {@link HttpTransport}, rather than the static configuration
+ * of a client library, so instances with different keys can be used in the same JVM and from many threads at once.
  * <p/>
  * NB Google translation service will be shutdown from 1-DEC-2011.
  *
@@ -12,74 +21,95 @@ import com.google.api.translate.TranslateV2;
  * Date: 22/08/11
  * Time: 7:57 PM
  */
-public final class GoogleTranslator implements Translator {
+public final class GoogleTranslator extends AbstractBatchTranslator {
+
+    private static final String SERVICE_URL = "https://www.googleapis.com/language/translate/v2";
+
+    /**
+     * Maximum number of texts the service will accept in a single request.
+     */
+    public static final int MAX_TEXTS_PER_REQUEST = 128;
+
+    /**
+     * Maximum number of characters of text the service will accept in a single request.
+     */
+    public static final int MAX_CHARACTERS_PER_REQUEST = 5000;
 
-    private boolean debug;
-    private int nrRemoteCalls = 0;
-    private int nrCallsBeforePause = 1000;
-    private int millisToPause = 50;
+    private final HttpTransport transport;
+
+    private String serviceUrl = SERVICE_URL;
+    private String apiKey;
+    private String httpReferrer = "www.jumblee.org";
 
     public GoogleTranslator() {
-        //Translate.setHttpReferrer("http://localhost");
-        TranslateV2.setHttpReferrer("www.jumblee.org");
+        this(new HttpTransport());
     }
 
-    public void setApiKey(String apiKey) {
-        TranslateV2.setKey(apiKey);
+    /**
+     * @param transport HttpTransport with which to send requests to the service.
+     */
+    public GoogleTranslator(HttpTransport transport) {
+        super(MAX_TEXTS_PER_REQUEST, MAX_CHARACTERS_PER_REQUEST);
+        this.transport = transport;
     }
 
-    public void setNrCallsBeforePause(int nrCallsBeforePause) {
-        this.nrCallsBeforePause = nrCallsBeforePause;
+    /**
+     * @param serviceUrl    URL of the service. Defaults to the public service, set it to test against a stand in.
+     */
+    public void setServiceUrl(String serviceUrl) {
+        this.serviceUrl = serviceUrl;
     }
 
-    public void setMillisToPause(int millisToPause) {
-        this.millisToPause = millisToPause;
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
     }
 
-    public void setDebug(boolean debug) {
-        this.debug = debug;
+    /**
+     * @param httpReferrer  Referrer to send with each request. Defaults to www.jumblee.org.
+     */
+    public void setHttpReferrer(String httpReferrer) {
+        this.httpReferrer = httpReferrer;
     }
 
-    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
-        final Language sourceLang = Language.fromString(sourceLanguage);
-        final Language targetLang = Language.fromString(targetLanguage);
-
-        // Replace any \n with an untranslatable LINE_END_TOKEN
-        if (debug) System.out.println("Translating [" + sourceLang + "] : '" + text + "'");
-
-        if ("".equals(text)) {
-            return ""; // GoogleTranslate throws an Exception when trying to translate an empty string.
+    @Override
+    protected List<String> execute(List<String> batch, String sourceLanguage, String targetLanguage) {
+        // Texts are posted so that a large batch doesn't exceed the maximum length of a URL.
+        final StringBuilder form = new StringBuilder();
+        HttpTransport.appendParameter(form, "key", apiKey);
+        HttpTransport.appendParameter(form, "source", sourceLanguage);
+        HttpTransport.appendParameter(form, "target", targetLanguage);
+        HttpTransport.appendParameter(form, "format", "text");
+        for (final String text : batch) {
+            HttpTransport.appendParameter(form, "q", text);
         }
 
-        if (++nrRemoteCalls % nrCallsBeforePause ==0){
-            System.out.print("\r pausing "+ millisToPause /1000+" seconds every "+ nrCallsBeforePause +" calls to google");
-            try {
-                Thread.sleep(millisToPause);
-            } catch (InterruptedException e) {
-                throw new TranslationException("Interrupted waiting ", e);
-            }
-            System.out.print("\r resuming...");
-        }
+        final Map<String, String> headers = new HashMap<String, String>();
+        headers.put("X-HTTP-Method-Override", "GET");
+        headers.put("Referer", httpReferrer);
 
-        try {
-            final String output = TranslateV2.execute(text.toString(), sourceLang, targetLang);
-            if (debug) System.out.println("To [" + targetLang + "] : '" + output + "'");
-            if (debug) System.out.println();
-            //printChars(output);
-            return output;
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new TranslationException("Could not translate : '" + text + "'", e);
-        }
+        final String response = transport.post(serviceUrl, headers, form.toString());
+        return parseResponse(response, batch.size());
     }
 
-    private void printChars(CharSequence text) {
-        for (int i = 0; i < text.length(); i++) {
-            final char ch = text.charAt(i);
-            System.out.println("i=" + i + "   chr=" + ch + "   (int) ch=" + (int) ch);
+    /**
+     * @param response  Body of a response from the service.
+     * @param nrTexts   Number of texts that were sent.
+     * @return the translation of each text.
+     * @throws TranslationException if the response doesn't hold a translation for each text.
+     */
+    static List<String> parseResponse(String response, int nrTexts) {
+        try {
+            final JSONArray translations = new JSONObject(response).getJSONObject("data").getJSONArray("translations");
+            if (translations.length() != nrTexts) {
+                throw new TranslationException("Expected " + nrTexts + " translations but received " + translations.length(), null);
+            }
+            final List<String> output = new ArrayList<String>(nrTexts);
+            for (int i = 0; i < nrTexts; i++) {
+                output.add(translations.getJSONObject(i).getString("translatedText"));
+            }
+            return output;
+        } catch (JSONException e) {
+            throw new TranslationException("Could not understand response : " + response, e);
         }
-        System.out.println("end\n");
     }
-
 }
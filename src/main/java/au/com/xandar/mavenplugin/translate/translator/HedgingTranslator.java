@@ -0,0 +1,242 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for cutting the tail latency of a translation service by hedging slow requests.
+ * <p/>
+ * If a request hasn't completed within the given percentile of the latencies seen so far, a duplicate is sent
+ * and the translation of whichever completes first is used, the other being aborted through its {@link HttpTransport}.
+ * Hedges are only sent once enough latencies have been seen to know the percentile,
+ * and are limited to a fraction of the requests so that a slow service isn't sent much more work.
+ * <p/>
+ * Decorate the service beneath any rate or concurrency limit, so that only the service call is timed and hedged
+ * and a hedge shares the limiter slot of the request it hedges. Each hedge passes the rate limiter on its own.
+ * <p/>
+ * Latencies are kept in power of two buckets, so the delay before a hedge is an upper bound
+ * that may be up to twice the true percentile.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class HedgingTranslator implements Translator {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final Translator translator;
+    private final ExecutorService executor;
+    private final double percentile;
+    private final double maxHedgeRatio;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong overBudget = new AtomicLong();
+
+    private HttpTransport transport;
+    private RateLimiter rateLimiter = new RateLimiter(0, 0);
+
+    /**
+     * @param translator    Translation service to which to send the requests.
+     * @param executor      ExecutorService on which to send each request and its hedge.
+     * @param percentile    Percentile of the latency after which to send a hedge, e.g. 95.
+     * @param maxHedgeRatio Maximum number of hedges as a fraction of the requests, e.g. 0.05.
+     */
+    public HedgingTranslator(Translator translator, ExecutorService executor, double percentile, double maxHedgeRatio) {
+        this.translator = translator;
+        this.executor = executor;
+        this.percentile = percentile;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    /**
+     * @param transport HttpTransport through which the service sends its requests, so that the request that loses can be aborted.
+     *                  If null the loser runs to completion.
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * @param rateLimiter   RateLimiter that each hedge must pass. Defaults to no limit.
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public String translate(final CharSequence text, final String sourceLanguage, final String targetLanguage) {
+        return execute(text.length(), new Callable<String>() {
+            public String call() {
+                return translator.translate(text, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    public List<String> translateAll(final List<? extends CharSequence> texts, final String sourceLanguage, final String targetLanguage) {
+        int nrCharacters = 0;
+        for (final CharSequence text : texts) {
+            nrCharacters += text.length();
+        }
+        return execute(nrCharacters, new Callable<List<String>>() {
+            public List<String> call() {
+                return translator.translateAll(texts, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    /**
+     * @return number of requests made, not counting hedges.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of hedges sent.
+     */
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    /**
+     * @return number of hedges that completed before the request they hedged.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * @return number of slow requests that weren't hedged because the budget of hedges was spent.
+     */
+    public long getOverBudget() {
+        return overBudget.get();
+    }
+
+    private <T> T execute(int nrCharacters, Callable<T> request) {
+        final long nrRequests = requests.incrementAndGet();
+        final long delayMicros = (latency.getCount() >= MIN_SAMPLES) ? latency.getPercentileMicros(percentile) : -1;
+
+        final CompletionService<T> completionService = new ExecutorCompletionService<T>(executor);
+        final Attempt<T> primary = new Attempt<T>(request, 0);
+        primary.future = completionService.submit(primary);
+        Attempt<T> hedge = null;
+        try {
+            Future<T> completed = (delayMicros < 0) ? completionService.take() : completionService.poll(delayMicros, TimeUnit.MICROSECONDS);
+            if (completed == null) {
+                if (hedges.get() < maxHedgeRatio * nrRequests) {
+                    hedges.incrementAndGet();
+                    final Attempt<T> attempt = new Attempt<T>(request, nrCharacters);
+                    attempt.future = completionService.submit(attempt);
+                    hedge = attempt;
+                } else {
+                    overBudget.incrementAndGet();
+                }
+                completed = completionService.take();
+            }
+
+            try {
+                final T result = completed.get();
+                if (hedge != null && completed == hedge.future) {
+                    hedgeWins.incrementAndGet();
+                }
+                return result;
+            } catch (ExecutionException e) {
+                if (hedge == null) {
+                    throw e;
+                }
+                // The first to complete failed, so wait for the other.
+                final Future<T> other = completionService.take();
+                final T result = other.get();
+                if (other == hedge.future) {
+                    hedgeWins.incrementAndGet();
+                }
+                return result;
+            }
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new TranslationException("Could not translate", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for translation", e);
+        } finally {
+            primary.abort();
+            if (hedge != null) {
+                hedge.abort();
+            }
+        }
+    }
+
+    /**
+     * A request or its hedge, recording its latency if it succeeds.
+     * <p/>
+     * Holds the thread sending it so that the request can be aborted once it is no longer wanted,
+     * as cancelling its Future doesn't stop a thread waiting on a response.
+     */
+    private final class Attempt<T> implements Callable<T> {
+
+        private final Callable<T> request;
+        private final int nrRateLimitedCharacters;
+        private Future<T> future;
+        private Thread thread;
+        private boolean done;
+
+        /**
+         * @param request                   Request to send.
+         * @param nrRateLimitedCharacters   Number of characters for which to wait on the rate limiter before sending, or zero to not wait.
+         */
+        private Attempt(Callable<T> request, int nrRateLimitedCharacters) {
+            this.request = request;
+            this.nrRateLimitedCharacters = nrRateLimitedCharacters;
+        }
+
+        public T call() throws Exception {
+            if (nrRateLimitedCharacters > 0) {
+                rateLimiter.acquire(nrRateLimitedCharacters);
+            }
+            synchronized (this) {
+                if (done) {
+                    throw new TranslationException("Aborted", null);
+                }
+                thread = Thread.currentThread();
+            }
+            try {
+                final long start = System.nanoTime();
+                final T result = request.call();
+                latency.record(System.nanoTime() - start);
+                return result;
+            } finally {
+                synchronized (this) {
+                    done = true;
+                    thread = null;
+                }
+            }
+        }
+
+        /**
+         * Cancels the request and aborts it if it is being sent. Does nothing if it has completed.
+         */
+        private void abort() {
+            future.cancel(true);
+            synchronized (this) {
+                done = true;
+                if (thread != null && transport != null) {
+                    transport.abort(thread);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Responsible for sending the HTTP requests of a translation service.
+ * <p/>
+ * Each instance holds its own connection settings, so translators with different settings can be used in the same JVM.
+ * A response other than 2xx becomes a {@link TranslationException} holding its status code and any Retry-After period.
+ * <p/>
+ * Connections are kept alive and reused by every thread: each response is read to its end and closed
+ * rather than disconnected, which returns its connection to the JVM's keep-alive pool for the next request.
+ * The number of connections open at once is bounded by {@link #setMaxConnections(int)},
+ * and responses are requested gzipped to cut the bytes sent for each batch.
+ * <p/>
+ * A request that is no longer wanted, e.g. the loser of a hedge, can be aborted with {@link #abort(Thread)}
+ * as interrupting the thread doesn't stop it waiting on the response.
+ * <p/>
+ * Instances are safe for use by multiple threads once configured.
+ */
+public class HttpTransport {
+
+    private static final String CHARSET = "UTF-8";
+    private static final int MAX_ERROR_LENGTH = 200;
+
+    private int connectTimeoutMillis = 30000;
+    private int readTimeoutMillis = 60000;
+    private Semaphore connections = new Semaphore(8);
+    private final AtomicLong nrRequests = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final ConcurrentMap<Thread, HttpURLConnection> connectionsInFlight = new ConcurrentHashMap<Thread, HttpURLConnection>();
+
+    /**
+     * @param connectTimeoutMillis  Time to wait for a connection. Defaults to 30 seconds.
+     */
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @param readTimeoutMillis Time to wait for a response. Defaults to 60 seconds.
+     */
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @param maxConnections    Maximum number of connections to have open at once. Defaults to 8.
+     *                          NB the JVM keeps at most http.maxConnections (default 5) idle connections to each host alive.
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.connections = new Semaphore(Math.max(1, maxConnections));
+    }
+
+    /**
+     * @return number of bytes received in response bodies, before they were unzipped.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * @return number of requests sent.
+     */
+    public long getNrRequests() {
+        return nrRequests.get();
+    }
+
+    /**
+     * @param url       URL to get.
+     * @param headers   Headers to send with the request.
+     * @return the body of the response.
+     * @throws TranslationException if the request failed or the response wasn't 2xx.
+     */
+    public String get(String url, Map<String, String> headers) {
+        return execute("GET", url, headers, null);
+    }
+
+    /**
+     * @param url       URL to which to post.
+     * @param headers   Headers to send with the request.
+     * @param form      Form encoded body of the request, see {@link #appendParameter(StringBuilder, String, String)}.
+     * @return the body of the response.
+     * @throws TranslationException if the request failed or the response wasn't 2xx.
+     */
+    public String post(String url, Map<String, String> headers, String form) {
+        return execute("POST", url, headers, form);
+    }
+
+    /**
+     * Aborts the request that a thread is sending, by disconnecting its connection so that it fails at once.
+     * Nothing happens if the thread isn't sending a request.
+     *
+     * @param thread    Thread sending the request.
+     */
+    public void abort(Thread thread) {
+        final HttpURLConnection connection = connectionsInFlight.get(thread);
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Appends a form encoded parameter to a query string or form body.
+     * Nothing is appended if the value is null, e.g. when no API key has been configured.
+     *
+     * @param sb    StringBuilder to which to append the parameter.
+     * @param name  Name of the parameter.
+     * @param value Value of the parameter.
+     */
+    public static void appendParameter(StringBuilder sb, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        final char last = (sb.length() == 0) ? '?' : sb.charAt(sb.length() - 1);
+        if (last != '?' && last != '&') {
+            sb.append('&');
+        }
+        try {
+            sb.append(URLEncoder.encode(name, CHARSET)).append('=').append(URLEncoder.encode(value, CHARSET));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(CHARSET + " is always supported", e);
+        }
+    }
+
+    /**
+     * Sends a request and reads its response.
+     * <p/>
+     * Subclasses may override this to stand in for the service.
+     *
+     * @param method    HTTP method.
+     * @param url       URL to which to send the request.
+     * @param headers   Headers to send with the request.
+     * @param form      Form encoded body of the request, or null if there is none.
+     * @return the body of the response.
+     * @throws TranslationException if the request failed or the response wasn't 2xx.
+     */
+    protected String execute(String method, String url, Map<String, String> headers, String form) {
+        nrRequests.incrementAndGet();
+        final String host = getHost(url); // Never report the URL itself, its query may hold an API key.
+        final Semaphore permits = connections;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for a connection to " + host, e);
+        }
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connectionsInFlight.put(Thread.currentThread(), connection);
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setRequestProperty("Accept-Charset", CHARSET);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            for (final Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            if (form != null) {
+                final byte[] body = form.getBytes(CHARSET);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=" + CHARSET);
+                connection.setFixedLengthStreamingMode(body.length);
+                final OutputStream out = connection.getOutputStream();
+                try {
+                    out.write(body);
+                } finally {
+                    out.close();
+                }
+            }
+
+            final int statusCode = connection.getResponseCode();
+            if (statusCode / 100 != 2) {
+                final String error = readBody(connection, connection.getErrorStream());
+                throw new TranslationException("HTTP " + statusCode + " from " + host + " : " + abbreviate(error), null,
+                        statusCode, RetryingTranslator.parseRetryAfter(connection.getHeaderField("Retry-After")));
+            }
+            return readBody(connection, connection.getInputStream());
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect(); // The connection may be part way through a response, so it can't be reused.
+            }
+            throw new TranslationException("Could not " + method + " from " + host, e);
+        } finally {
+            connectionsInFlight.remove(Thread.currentThread());
+            permits.release();
+        }
+    }
+
+    /**
+     * Reads the response to its end and closes it, so that its connection can be reused.
+     */
+    private String readBody(HttpURLConnection connection, InputStream stream) throws IOException {
+        if (stream == null) {
+            return "";
+        }
+        final CountingInputStream counted = new CountingInputStream(stream);
+        final InputStream in = "gzip".equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(counted) : counted;
+        try {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int nrRead;
+            while ((nrRead = in.read(buffer)) >= 0) {
+                body.write(buffer, 0, nrRead);
+            }
+            return body.toString(getCharset(connection.getContentType()));
+        } finally {
+            in.close();
+            bytesReceived.addAndGet(counted.count);
+        }
+    }
+
+    /**
+     * @return the charset of the content type, or UTF-8 if it has none.
+     */
+    private static String getCharset(String contentType) {
+        if (contentType != null) {
+            for (final String parameter : contentType.split(";")) {
+                final String trimmed = parameter.trim();
+                if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                    return trimmed.substring(8).replace("\"", "");
+                }
+            }
+        }
+        return CHARSET;
+    }
+
+    private static String abbreviate(String text) {
+        return (text.length() <= MAX_ERROR_LENGTH) ? text : text.substring(0, MAX_ERROR_LENGTH) + "...";
+    }
+
+    private static String getHost(String url) {
+        final int start = url.indexOf("://") + 3;
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return url.substring(start, end);
+    }
+
+    /**
+     * Counts the bytes read through it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int nrRead = super.read(b, off, len);
+            if (nrRead > 0) {
+                count += nrRead;
+            }
+            return nrRead;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with a bucket for each power of two microseconds.
+ * <p/>
+ * Recording is lock free and percentiles are accurate to within a factor of two,
+ * which is plenty to track the latency of a translation service from one build to the next.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int NR_BUCKETS = 40;
+
+    // Bucket i counts latencies of at least 2^i and less than 2^(i+1) microseconds, with latencies under 1 microsecond in bucket 0.
+    private final AtomicLongArray counts = new AtomicLongArray(NR_BUCKETS);
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * @param nanos Latency to record in nanoseconds.
+     */
+    public void record(long nanos) {
+        final long micros = Math.max(0, nanos / 1000);
+        final int bucket = Math.min(NR_BUCKETS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, micros)));
+        counts.incrementAndGet(bucket);
+        totalMicros.addAndGet(micros);
+
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * @return number of latencies recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return mean latency in microseconds, or zero if nothing has been recorded.
+     */
+    public long getMeanMicros() {
+        final long count = getCount();
+        return (count == 0) ? 0 : totalMicros.get() / count;
+    }
+
+    /**
+     * @return greatest latency recorded in microseconds.
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @param percentile    Percentile to return, from 0 to 100.
+     * @return upper bound in microseconds of the bucket holding the percentile, or zero if nothing has been recorded.
+     */
+    public long getPercentileMicros(double percentile) {
+        final long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(1L << (i + 1), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+}
@@ -1,5 +1,8 @@
 package au.com.xandar.mavenplugin.translate.translator;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,46 +29,88 @@ public final class LineEndReplacementDecorator implements Translator {
     }
 
     public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        return translateAll(Collections.singletonList(text), sourceLanguage, targetLanguage).get(0);
+    }
+
+    /**
+     * Splits each text into one line segments and translates all of the segments in a single batch.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
 
-        final StringBuilder output = new StringBuilder();
+        // Split each text into one line segments, recording the line ends that separate them.
+        final List<CharSequence> segments = new ArrayList<CharSequence>();
+        final List<List<String>> lineEndsPerText = new ArrayList<List<String>>(texts.size());
+        final List<Boolean> remainderPerText = new ArrayList<Boolean>(texts.size());
+        for (final CharSequence text : texts) {
+            final List<String> lineEnds = new ArrayList<String>();
+            remainderPerText.add(split(text, segments, lineEnds));
+            lineEndsPerText.add(lineEnds);
+        }
+
+        final List<String> translatedSegments = translator.translateAll(segments, sourceLanguage, targetLanguage);
+
+        // Reassemble each text from its translated segments and line ends.
+        final List<String> outputs = new ArrayList<String>(texts.size());
+        int segmentNr = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            final StringBuilder output = new StringBuilder();
+            for (final String lineEnd : lineEndsPerText.get(i)) {
+                final CharSequence translated = translatedSegments.get(segmentNr++);
+                if (debug) System.out.println("LineEndReplacementDecorator translated='" + translated + "'");
+                output.append(translated);
+                output.append(lineEnd);
+                if (debug) System.out.println("LineEndReplacementDecorator output='" + output + "'");
+            }
+            if (remainderPerText.get(i)) {
+                final CharSequence translated = translatedSegments.get(segmentNr++);
+                if (debug) System.out.println("LineEndReplacementDecorator translated='" + translated + "'");
+                output.append(translated);
+                if (debug) System.out.println("LineEndReplacementDecorator output='" + output + "'");
+            }
+            outputs.add(output.toString());
+        }
+        return outputs;
+    }
+
+    /**
+     * Splits the text into one line segments.
+     *
+     * @param text      Text to split.
+     * @param segments  List to which to add the segments requiring translation.
+     * @param lineEnds  List to which to add the line end that follows each segment.
+     * @return true if there is a final segment that isn't followed by a line end.
+     */
+    private boolean split(CharSequence text, List<CharSequence> segments, List<String> lineEnds) {
 
         int translateStart = 0;
 
-        // Split into one line segments, and translate each in turn.
         final Matcher matcher = PATTERN.matcher(text);
         while (matcher.find()) {
-            // Replace found SF with generated untranslatable token.
             final String foundText = matcher.group();
             final int lineEndStart = matcher.start();
             final int lineEndFinish = matcher.end();
 
-            // Get Text before this foundRegion, translate it and add it to output. Then add foundText to output.
+            // Text before this foundRegion needs translating and is followed by the foundText.
             final CharSequence requiringTranslation = text.subSequence(translateStart, lineEndStart);
             if (debug) System.out.println("LineEndReplacementDecorator foundText='" + foundText + "'");
             if (debug) System.out.println("LineEndReplacementDecorator translateStart=" + translateStart + " lineEndStart=" + lineEndStart + " lineEndFinish=" + lineEndFinish);
             if (debug) System.out.println("LineEndReplacementDecorator translating='" + requiringTranslation + "'");
-            final CharSequence translated = translator.translate(requiringTranslation, sourceLanguage, targetLanguage);
-            if (debug) System.out.println("LineEndReplacementDecorator translated='" + translated + "'");
-            output.append(translated);
-            output.append(foundText);
-            if (debug) System.out.println("LineEndReplacementDecorator output='" + output + "'");
+            segments.add(requiringTranslation);
+            lineEnds.add(foundText);
 
             // increment translateStart
             translateStart = lineEndFinish;
         }
 
-        // Now translate and append any remaining string.
+        // Now add any remaining string.
         if (translateStart < text.length()) {
             final CharSequence requiringTranslation = text.subSequence(translateStart, text.length());
             if (debug) System.out.println("LineEndReplacementDecorator translating='" + requiringTranslation + "'");
-            final CharSequence translated = translator.translate(requiringTranslation, sourceLanguage, targetLanguage);
-            if (debug) System.out.println("LineEndReplacementDecorator translated='" + translated + "'");
-            output.append(translated);
-            if (debug) System.out.println("LineEndReplacementDecorator output='" + output + "'");
+            segments.add(requiringTranslation);
+            return true;
         } else {
             if (debug) System.out.println("LineEndReplacementDecorator unexpected translateStart(" + translateStart + ") >= text#length(" + text.length() + ")");
+            return false;
         }
-
-        return output.toString();
     }
 }
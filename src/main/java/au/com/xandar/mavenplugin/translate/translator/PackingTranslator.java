@@ -0,0 +1,217 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for packing many short texts into a single text for the translation service,
+ * so that the overhead of each request is shared between them.
+ * <p/>
+ * The texts in a pack are separated by numbered tokens that survive translation, like the tokens of a {@link StringFormatTokenizer}.
+ * If the translation of a pack comes back without all of its tokens in order, its texts are translated one by one instead.
+ * <p/>
+ * Texts with leading or trailing whitespace or that already contain a token are never packed,
+ * as they could not be recovered exactly from the translated pack.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class PackingTranslator implements Translator {
+
+    static final String SEPARATOR_PREFIX = "SEG_TOKEN_";
+
+    private final Translator translator;
+    private final int maxPackedLength;
+
+    private final AtomicLong packs = new AtomicLong();
+    private final AtomicLong packedTexts = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /**
+     * @param translator        Translator to which to send the packed texts.
+     * @param maxPackedLength   Maximum number of characters in a pack, including its separators.
+     */
+    public PackingTranslator(Translator translator, int maxPackedLength) {
+        this.translator = translator;
+        this.maxPackedLength = maxPackedLength;
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        return translator.translate(text, sourceLanguage, targetLanguage);
+    }
+
+    /**
+     * Packs consecutive short texts together and translates the packs along with any unpacked texts in a single batch.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        final String[] outputs = new String[texts.size()];
+
+        // Gather the texts into packs, leaving those that can't be packed to be translated on their own.
+        final List<Pack> packList = new ArrayList<Pack>();
+        final List<CharSequence> requests = new ArrayList<CharSequence>();
+        final List<Integer> requestIndexes = new ArrayList<Integer>(); // Index of each unpacked text in texts.
+        Pack pack = null;
+        for (int i = 0; i < texts.size(); i++) {
+            final CharSequence text = texts.get(i);
+            if (text.length() == 0) {
+                outputs[i] = "";
+            } else if (!isPackable(text)) {
+                requests.add(text);
+                requestIndexes.add(i);
+            } else {
+                if (pack != null && !pack.fits(text)) {
+                    closePack(pack, packList, texts, requests, requestIndexes);
+                    pack = null;
+                }
+                if (pack == null) {
+                    pack = new Pack();
+                }
+                pack.add(i, text);
+            }
+        }
+        if (pack != null) {
+            closePack(pack, packList, texts, requests, requestIndexes);
+        }
+
+        if (!requests.isEmpty()) {
+            final List<String> translations = translator.translateAll(requests, sourceLanguage, targetLanguage);
+            for (int i = 0; i < requestIndexes.size(); i++) {
+                outputs[requestIndexes.get(i)] = translations.get(i);
+            }
+        }
+
+        // Unpack each translated pack, translating the texts of any pack that was mangled one by one.
+        final List<CharSequence> retries = new ArrayList<CharSequence>();
+        final List<Integer> retryIndexes = new ArrayList<Integer>();
+        for (final Pack translatedPack : packList) {
+            final List<String> unpacked = unpack(outputs[translatedPack.indexes.get(0)], translatedPack.indexes.size());
+            if (unpacked == null) {
+                fallbacks.incrementAndGet();
+                for (final Integer index : translatedPack.indexes) {
+                    retries.add(texts.get(index));
+                    retryIndexes.add(index);
+                }
+            } else {
+                for (int i = 0; i < unpacked.size(); i++) {
+                    outputs[translatedPack.indexes.get(i)] = unpacked.get(i);
+                }
+            }
+        }
+        if (!retries.isEmpty()) {
+            final List<String> translations = translator.translateAll(retries, sourceLanguage, targetLanguage);
+            for (int i = 0; i < retryIndexes.size(); i++) {
+                outputs[retryIndexes.get(i)] = translations.get(i);
+            }
+        }
+        return Arrays.asList(outputs);
+    }
+
+    /**
+     * @return number of packs sent to the translation service.
+     */
+    public long getPacks() {
+        return packs.get();
+    }
+
+    /**
+     * @return number of texts sent to the translation service within a pack.
+     */
+    public long getPackedTexts() {
+        return packedTexts.get();
+    }
+
+    /**
+     * @return number of packs whose texts had to be translated one by one as their translation lost a separator.
+     */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    private boolean isPackable(CharSequence text) {
+        return text.length() < maxPackedLength
+                && text.charAt(0) > ' '
+                && text.charAt(text.length() - 1) > ' '
+                && text.toString().indexOf(SEPARATOR_PREFIX) < 0;
+    }
+
+    /**
+     * Adds the pack to the requests, or just its text if it holds only one.
+     * The pack's translation is found at the index in the outputs of its first text.
+     */
+    private void closePack(Pack pack, List<Pack> packList, List<? extends CharSequence> texts, List<CharSequence> requests, List<Integer> requestIndexes) {
+        final int firstIndex = pack.indexes.get(0);
+        if (pack.indexes.size() == 1) {
+            requests.add(texts.get(firstIndex));
+        } else {
+            packs.incrementAndGet();
+            packedTexts.addAndGet(pack.indexes.size());
+            packList.add(pack);
+            requests.add(pack.text);
+        }
+        requestIndexes.add(firstIndex);
+    }
+
+    /**
+     * @param translation   Translation of a pack.
+     * @param nrTexts       Number of texts in the pack.
+     * @return the translation of each text in the pack, or null if a separator is missing or out of order.
+     */
+    static List<String> unpack(String translation, int nrTexts) {
+        final List<String> unpacked = new ArrayList<String>(nrTexts);
+        int position = 0;
+        for (int separatorNr = 1; separatorNr < nrTexts; separatorNr++) {
+            final String separator = SEPARATOR_PREFIX + separatorNr;
+            int separatorStart = translation.indexOf(separator, position);
+            while (separatorStart >= 0 && isDigitAt(translation, separatorStart + separator.length())) {
+                separatorStart = translation.indexOf(separator, separatorStart + 1); // Found SEG_TOKEN_10 while looking for SEG_TOKEN_1
+            }
+            if (separatorStart < 0 || !addSegment(translation.substring(position, separatorStart), unpacked)) {
+                return null;
+            }
+            position = separatorStart + separator.length();
+        }
+        if (!addSegment(translation.substring(position), unpacked)) {
+            return null;
+        }
+        return unpacked;
+    }
+
+    private static boolean addSegment(String segment, List<String> unpacked) {
+        final String trimmed = segment.trim();
+        if (trimmed.length() == 0 || trimmed.indexOf(SEPARATOR_PREFIX) >= 0) {
+            return false;
+        }
+        unpacked.add(trimmed);
+        return true;
+    }
+
+    private static boolean isDigitAt(String text, int index) {
+        return index < text.length() && Character.isDigit(text.charAt(index));
+    }
+
+    /**
+     * Texts packed together along with their index in the texts being translated.
+     */
+    private final class Pack {
+
+        private final List<Integer> indexes = new ArrayList<Integer>();
+        private final StringBuilder text = new StringBuilder();
+
+        private boolean fits(CharSequence nextText) {
+            return text.length() + getSeparator(indexes.size()).length() + nextText.length() <= maxPackedLength;
+        }
+
+        private void add(int index, CharSequence nextText) {
+            if (!indexes.isEmpty()) {
+                text.append(getSeparator(indexes.size()));
+            }
+            text.append(nextText);
+            indexes.add(index);
+        }
+
+        private String getSeparator(int separatorNr) {
+            return "\n" + SEPARATOR_PREFIX + separatorNr + "\n";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Responsible for holding back requests to a translation service until they can be sent within the budget of a {@link RateLimiter}.
+ * <p/>
+ * The texts of each call are sent in requests of at most maxTextsPerRequest texts, as the service itself would split them,
+ * and each request waits on the limiter before being passed on. Empty texts aren't sent to the service so don't wait.
+ * <p/>
+ * Decorate the service above any decorator that times its calls, so that the time waiting on the limiter isn't counted as latency.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class RateLimitDecorator implements Translator {
+
+    private final Translator translator;
+    private final RateLimiter rateLimiter;
+    private final int maxTextsPerRequest;
+
+    /**
+     * @param translator            Translation service to which to send the requests.
+     * @param rateLimiter           RateLimiter shared by every request to the service.
+     * @param maxTextsPerRequest    Maximum number of texts the service sends in a single request.
+     */
+    public RateLimitDecorator(Translator translator, RateLimiter rateLimiter, int maxTextsPerRequest) {
+        this.translator = translator;
+        this.rateLimiter = rateLimiter;
+        this.maxTextsPerRequest = maxTextsPerRequest;
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        if (text.length() > 0) {
+            rateLimiter.acquire(text.length());
+        }
+        return translator.translate(text, sourceLanguage, targetLanguage);
+    }
+
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        if (texts.size() <= maxTextsPerRequest) {
+            acquire(texts);
+            return translator.translateAll(texts, sourceLanguage, targetLanguage);
+        }
+
+        final List<String> translations = new ArrayList<String>(texts.size());
+        for (int start = 0; start < texts.size(); start += maxTextsPerRequest) {
+            final List<? extends CharSequence> request = texts.subList(start, Math.min(texts.size(), start + maxTextsPerRequest));
+            acquire(request);
+            translations.addAll(translator.translateAll(request, sourceLanguage, targetLanguage));
+        }
+        return translations;
+    }
+
+    /**
+     * @return RateLimiter that every request passes.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    private void acquire(List<? extends CharSequence> texts) {
+        int nrCharacters = 0;
+        for (final CharSequence text : texts) {
+            nrCharacters += text.length();
+        }
+        if (nrCharacters > 0) {
+            rateLimiter.acquire(nrCharacters);
+        }
+    }
+}
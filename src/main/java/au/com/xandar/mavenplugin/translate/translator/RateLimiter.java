@@ -0,0 +1,108 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that limits the rate of requests and of characters sent to a translation service.
+ * <p/>
+ * Each bucket refills continuously at its configured rate and holds at most one second's worth of tokens,
+ * so short bursts are allowed but the average rate never exceeds the budget.
+ * A request larger than the bucket is allowed through once the bucket is full and leaves it in debt,
+ * which later requests wait to pay off. This lets a service be driven right up to its quota.
+ * <p/>
+ * Instances are safe for use by multiple threads and are intended to be shared by all threads calling a service.
+ */
+public final class RateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private final Bucket requests;
+    private final Bucket characters;
+    private final AtomicLong waitNanos = new AtomicLong();
+
+    /**
+     * @param requestsPerSecond     Maximum average number of requests per second, or zero for no limit.
+     * @param charactersPerSecond   Maximum average number of characters per second, or zero for no limit.
+     */
+    public RateLimiter(double requestsPerSecond, double charactersPerSecond) {
+        final long now = System.nanoTime();
+        this.requests = (requestsPerSecond > 0) ? new Bucket(requestsPerSecond, now) : null;
+        this.characters = (charactersPerSecond > 0) ? new Bucket(charactersPerSecond, now) : null;
+    }
+
+    /**
+     * Waits until a request containing the given number of characters can be sent without exceeding the budget.
+     *
+     * @param nrCharacters  Number of characters in the request.
+     * @throws TranslationException if interrupted while waiting.
+     */
+    public void acquire(int nrCharacters) {
+        final long waitNanos = reserve(nrCharacters);
+        if (waitNanos <= 0) {
+            return;
+        }
+        this.waitNanos.addAndGet(waitNanos);
+        try {
+            Thread.sleep(waitNanos / 1000000L, (int) (waitNanos % 1000000L));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting for rate limit", e);
+        }
+    }
+
+    /**
+     * @return total time that callers have been made to wait, in nanoseconds.
+     */
+    public long getWaitNanos() {
+        return waitNanos.get();
+    }
+
+    /**
+     * Takes the tokens for a request, going into debt if necessary.
+     *
+     * @param nrCharacters  Number of characters in the request.
+     * @return number of nanoseconds to wait before the request may be sent.
+     */
+    private synchronized long reserve(int nrCharacters) {
+        final long now = System.nanoTime();
+        long waitNanos = 0;
+        if (requests != null) {
+            waitNanos = Math.max(waitNanos, requests.take(1, now));
+        }
+        if (characters != null) {
+            waitNanos = Math.max(waitNanos, characters.take(nrCharacters, now));
+        }
+        return waitNanos;
+    }
+
+    private static final class Bucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokensPerSecond, long now) {
+            this.tokensPerNano = tokensPerSecond / NANOS_PER_SECOND;
+            this.capacity = Math.max(1, tokensPerSecond);
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * @param amount    Number of tokens to take.
+         * @param now       Current System#nanoTime.
+         * @return nanoseconds until the bucket is out of debt, or zero if the tokens were available.
+         */
+        long take(int amount, long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+
+            // Allow a request larger than the bucket once it is full, otherwise it could never be sent.
+            final double needed = Math.min(amount, capacity);
+            final long waitNanos = (tokens >= needed) ? 0 : (long) Math.ceil((needed - tokens) / tokensPerNano);
+            tokens -= amount;
+            return waitNanos;
+        }
+    }
+}
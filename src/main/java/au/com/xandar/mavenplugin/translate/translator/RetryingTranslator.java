@@ -0,0 +1,225 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for retrying the requests to a translation service that fail for a transient reason,
+ * so that one dropped connection doesn't abort a long build.
+ * <p/>
+ * A request is retried if it failed with an IOException, a 408 or 429 response or a 5xx response.
+ * Retries are spaced by an exponential backoff with full jitter, or by the Retry-After period if the service gave one.
+ * Every request passes through a {@link CircuitBreaker} so that a degraded service isn't hammered by every thread at once.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class RetryingTranslator implements Translator {
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private final Translator translator;
+    private final int maxAttempts;
+    private final CircuitBreaker circuitBreaker;
+    private final Random random = new Random();
+
+    private long baseDelayMillis = 500;
+    private long maxDelayMillis = 60000;
+    private long maxElapsedMillis = 15 * 60000;
+
+    private final AtomicLong retries = new AtomicLong();
+
+    /**
+     * @param translator        Translation service to which to send the requests.
+     * @param maxAttempts       Maximum number of times to send each request.
+     * @param circuitBreaker    CircuitBreaker shared by every request to the service.
+     */
+    public RetryingTranslator(Translator translator, int maxAttempts, CircuitBreaker circuitBreaker) {
+        this.translator = translator;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * @param baseDelayMillis   Greatest delay before the first retry. Defaults to 500ms and doubles for each retry.
+     */
+    public void setBaseDelayMillis(long baseDelayMillis) {
+        this.baseDelayMillis = baseDelayMillis;
+    }
+
+    /**
+     * @param maxDelayMillis    Greatest delay between any two attempts, other than one asked for by the service. Defaults to 1 minute.
+     */
+    public void setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * @param maxElapsedMillis  Time after which to stop retrying a request. Defaults to 15 minutes.
+     */
+    public void setMaxElapsedMillis(long maxElapsedMillis) {
+        this.maxElapsedMillis = maxElapsedMillis;
+    }
+
+    public String translate(final CharSequence text, final String sourceLanguage, final String targetLanguage) {
+        return execute(new Request<String>() {
+            public String send() {
+                return translator.translate(text, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    public List<String> translateAll(final List<? extends CharSequence> texts, final String sourceLanguage, final String targetLanguage) {
+        return execute(new Request<List<String>>() {
+            public List<String> send() {
+                return translator.translateAll(texts, sourceLanguage, targetLanguage);
+            }
+        });
+    }
+
+    /**
+     * @return number of requests that have been retried.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return CircuitBreaker through which every request passes.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private <T> T execute(Request<T> request) {
+        final long deadline = System.nanoTime() + maxElapsedMillis * NANOS_PER_MILLI;
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.acquire(deadline)) {
+                throw new TranslationException("Translation service is unavailable, gave up after " + maxElapsedMillis + "ms", null);
+            }
+
+            final RuntimeException failure;
+            try {
+                final T result = request.send();
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+
+            final int statusCode = getStatusCode(failure);
+            if (!isTransient(failure, statusCode)) {
+                if (statusCode > 0) {
+                    circuitBreaker.onSuccess(); // The service is up, it just didn't like the request.
+                } else {
+                    circuitBreaker.release();
+                }
+                throw failure;
+            }
+
+            final long retryAfterMillis = getRetryAfterMillis(failure);
+            circuitBreaker.onFailure(retryAfterMillis);
+            final long delayMillis = Math.max(retryAfterMillis, getBackoffMillis(attempt));
+            if (attempt >= maxAttempts || System.nanoTime() + delayMillis * NANOS_PER_MILLI - deadline > 0) {
+                throw failure;
+            }
+            retries.incrementAndGet();
+            sleep(delayMillis);
+        }
+    }
+
+    /**
+     * @param attempt   Number of the attempt that failed, starting at 1.
+     * @return a random delay of up to baseDelayMillis * 2^(attempt - 1), capped at maxDelayMillis.
+     */
+    private long getBackoffMillis(int attempt) {
+        final long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return 0;
+        }
+        synchronized (random) {
+            return (long) (random.nextDouble() * ceiling);
+        }
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TranslationException("Interrupted waiting to retry", e);
+        }
+    }
+
+    static boolean isTransient(Throwable failure, int statusCode) {
+        if (statusCode > 0) {
+            return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return false;
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the HTTP status code of the TranslationException that caused the failure, or -1 if not known.
+     */
+    static int getStatusCode(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TranslationException && ((TranslationException) cause).getStatusCode() > 0) {
+                return ((TranslationException) cause).getStatusCode();
+            }
+        }
+        return -1;
+    }
+
+    private static long getRetryAfterMillis(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TranslationException && ((TranslationException) cause).getRetryAfterMillis() >= 0) {
+                return ((TranslationException) cause).getRetryAfterMillis();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param retryAfter    Value of a Retry-After header, either a number of seconds or an HTTP date.
+     * @return milliseconds to wait before retrying, or -1 if the value could not be understood.
+     */
+    public static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) {
+            return -1;
+        }
+        final String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException e) {
+            // Not a number of seconds, so try for an HTTP date.
+        }
+        try {
+            final SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+            return Math.max(0, format.parse(value).getTime() - System.currentTimeMillis());
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A request to the translation service that may be sent more than once.
+     */
+    private interface Request<T> {
+        T send();
+    }
+}
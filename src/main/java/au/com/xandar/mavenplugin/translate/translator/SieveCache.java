@@ -0,0 +1,118 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Size bounded cache that evicts entries using the SIEVE algorithm.
+ * <p/>
+ * Entries are kept in insertion order and marked as visited when read. To make room, a hand sweeps from the
+ * oldest entry towards the newest, clearing the visited mark of each entry it passes and evicting the first
+ * entry that hasn't been visited since the hand last passed it. Unlike LRU a hit never reorders the queue,
+ * so reads are cheap, while entries that are read repeatedly survive a stream of one-off entries.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+final class SieveCache<K, V> {
+
+    private final int maxEntries;
+    private final Map<K, Node<K, V>> nodes;
+
+    private Node<K, V> newest;
+    private Node<K, V> oldest;
+    private Node<K, V> hand;
+
+    /**
+     * @param maxEntries    Maximum number of entries to hold.
+     */
+    SieveCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.nodes = new HashMap<K, Node<K, V>>();
+    }
+
+    /**
+     * @param key   Key of the entry.
+     * @return the value for the key or null if it isn't cached.
+     */
+    public synchronized V get(K key) {
+        final Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            return null;
+        }
+        node.visited = true;
+        return node.value;
+    }
+
+    /**
+     * @param key   Key of the entry.
+     * @param value Value to cache.
+     */
+    public synchronized void put(K key, V value) {
+        final Node<K, V> existing = nodes.get(key);
+        if (existing != null) {
+            existing.value = value;
+            return;
+        }
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (nodes.size() >= maxEntries) {
+            evict();
+        }
+
+        final Node<K, V> node = new Node<K, V>(key, value);
+        node.older = newest;
+        if (newest != null) {
+            newest.newer = node;
+        }
+        newest = node;
+        if (oldest == null) {
+            oldest = node;
+        }
+        nodes.put(key, node);
+    }
+
+    /**
+     * @return number of entries in the cache.
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private void evict() {
+        Node<K, V> node = (hand == null) ? oldest : hand;
+        while (node.visited) {
+            node.visited = false;
+            node = (node.newer == null) ? oldest : node.newer;
+        }
+        hand = node.newer;
+        remove(node);
+    }
+
+    private void remove(Node<K, V> node) {
+        if (node.older == null) {
+            oldest = node.newer;
+        } else {
+            node.older.newer = node.newer;
+        }
+        if (node.newer == null) {
+            newest = node.older;
+        } else {
+            node.newer.older = node.older;
+        }
+        nodes.remove(node.key);
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private boolean visited;
+        private Node<K, V> older;
+        private Node<K, V> newer;
+
+        private Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Responsible for recording the calls made to a translation service, for each language pair.
+ * <p/>
+ * Decorate the service itself, beneath any caching decorators, so that only the calls that reach the service are counted.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class StatisticsDecorator implements Translator {
+
+    private static final String LANGUAGE_SEPARATOR = "->";
+
+    private final Translator translator;
+    private final String serviceName;
+    private final ConcurrentMap<String, CallStatistics> statistics = new ConcurrentHashMap<String, CallStatistics>();
+
+    /**
+     * @param translator    Translation service whose calls are to be recorded.
+     * @param serviceName   Name of the translation service.
+     */
+    public StatisticsDecorator(Translator translator, String serviceName) {
+        this.translator = translator;
+        this.serviceName = serviceName;
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final String translation = translator.translate(text, sourceLanguage, targetLanguage);
+            failed = false;
+            return translation;
+        } finally {
+            getStatistics(sourceLanguage, targetLanguage).record(1, text.length(), System.nanoTime() - start, failed);
+        }
+    }
+
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        long nrCharacters = 0;
+        for (final CharSequence text : texts) {
+            nrCharacters += text.length();
+        }
+
+        final long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            final List<String> translations = translator.translateAll(texts, sourceLanguage, targetLanguage);
+            failed = false;
+            return translations;
+        } finally {
+            getStatistics(sourceLanguage, targetLanguage).record(texts.size(), nrCharacters, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * @return name of the translation service.
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * @return statistics of each language pair that has been translated, keyed by "sourceLanguage->targetLanguage".
+     */
+    public SortedMap<String, CallStatistics> getStatistics() {
+        return Collections.unmodifiableSortedMap(new TreeMap<String, CallStatistics>(statistics));
+    }
+
+    private CallStatistics getStatistics(String sourceLanguage, String targetLanguage) {
+        final String key = sourceLanguage + LANGUAGE_SEPARATOR + targetLanguage;
+        final CallStatistics existing = statistics.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        final CallStatistics created = new CallStatistics();
+        final CallStatistics raced = statistics.putIfAbsent(key, created);
+        return (raced == null) ? created : raced;
+    }
+}
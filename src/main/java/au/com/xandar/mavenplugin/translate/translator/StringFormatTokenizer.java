@@ -0,0 +1,292 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Responsible for replacing the StringFormat snippets in a text with numbered tokens that survive translation,
+ * and for reinstating the snippets in the translated text.
+ * <p/>
+ * The text is scanned once from left to right, so the cost is linear in the length of the text however many
+ * snippets it contains. A snippet is matched exactly as the regular expression
+ * <pre>
+ *     (\s*%(\d*\$)?[,+ (-0#]?\d*(.\d*)?CONVERSION[-_:]?\s*)+
+ * </pre>
+ * would match it, where CONVERSION is a single conversion character or a 't' date/time conversion.
+ * Note that the flags class includes the range from '(' to '0', and that the precision may start with any character.
+ * <p/>
+ * Instances are immutable.
+ */
+final class StringFormatTokenizer {
+
+    static final String TOKEN_PREFIX = "STR_TOKEN_";
+
+    private static final String CONVERSIONS = "sScCdoxXfeEgGaAbBhH%n";
+    private static final String DATE_TIME_CONVERSIONS = "aAbBcCdDehHIjklLmMNpQrRsSTyYzZ";
+    private static final String FLAGS = ",+ ()*-./0#";
+
+    private final String tokenizedText;
+    private final List<String> formats;
+
+    private StringFormatTokenizer(String tokenizedText, List<String> formats) {
+        this.tokenizedText = tokenizedText;
+        this.formats = formats;
+    }
+
+    /**
+     * @param text  Text in which to replace the StringFormat snippets.
+     * @return StringFormatTokenizer holding the text with each run of snippets replaced by " STR_TOKEN_n ".
+     */
+    public static StringFormatTokenizer tokenize(CharSequence text) {
+        final List<String> formats = new ArrayList<String>();
+        StringBuilder output = null;
+        int copied = 0;
+        int position = 0;
+        final int length = text.length();
+        while (position < length) {
+            final int percent = indexOf(text, '%', position, length);
+            if (percent < 0) {
+                break;
+            }
+            int end = matchFormat(text, percent + 1, length);
+            if (end < 0) {
+                position = percent + 1;
+                continue;
+            }
+
+            // Include any whitespace before the first snippet and any further snippets that follow it.
+            int start = percent;
+            while (start > position && isRegexWhitespace(text.charAt(start - 1))) {
+                start--;
+            }
+            while (end < length && text.charAt(end) == '%') {
+                final int next = matchFormat(text, end + 1, length);
+                if (next < 0) {
+                    break;
+                }
+                end = next;
+            }
+
+            if (output == null) {
+                output = new StringBuilder(length + 16);
+            }
+            output.append(text, copied, start);
+            formats.add(text.subSequence(start, end).toString());
+            output.append(' ').append(TOKEN_PREFIX).append(formats.size()).append(' ');
+            copied = end;
+            position = end;
+        }
+
+        if (output == null) {
+            return new StringFormatTokenizer(text.toString(), formats);
+        }
+        output.append(text, copied, length);
+        return new StringFormatTokenizer(output.toString(), formats);
+    }
+
+    /**
+     * @return the text with each StringFormat snippet replaced by a token.
+     */
+    public String getTokenizedText() {
+        return tokenizedText;
+    }
+
+    /**
+     * @return the StringFormat snippet replaced by each token, the first being STR_TOKEN_1.
+     */
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    /**
+     * Replaces the first occurrence of each token in the text with the StringFormat snippet it replaced.
+     * <p/>
+     * Any spaces the translator has put around a token are removed, as the whitespace around the snippet
+     * was replaced along with it. Spaces belonging to a snippet are never removed.
+     *
+     * @param text  Translated text containing the tokens.
+     * @return the translated text with the original StringFormat snippets.
+     */
+    public String getTextWithTokensReplaced(CharSequence text) {
+        if (formats.isEmpty()) {
+            return text.toString();
+        }
+
+        final boolean[] replaced = new boolean[formats.size()];
+        final StringBuilder output = new StringBuilder(text.length() + 16);
+        final int length = text.length();
+        int protectedLength = 0;
+        int position = 0;
+        while (position < length) {
+            final int tokenStart = indexOfToken(text, position, length);
+            if (tokenStart < 0) {
+                break;
+            }
+
+            int tokenEnd = tokenStart + TOKEN_PREFIX.length();
+            int tokenNr = 0;
+            while (tokenEnd < length && isDigit(text.charAt(tokenEnd)) && tokenNr <= formats.size()) {
+                tokenNr = tokenNr * 10 + (text.charAt(tokenEnd) - '0');
+                tokenEnd++;
+            }
+            final boolean isNumbered = (tokenEnd > tokenStart + TOKEN_PREFIX.length()) && (text.charAt(tokenStart + TOKEN_PREFIX.length()) != '0');
+            if (!isNumbered || tokenNr < 1 || tokenNr > formats.size() || replaced[tokenNr - 1]
+                    || (tokenEnd < length && isDigit(text.charAt(tokenEnd)))) {
+                // Not one of our tokens, or one that the translator has repeated, so leave it as it is.
+                output.append(text, position, tokenEnd);
+                position = tokenEnd;
+                continue;
+            }
+
+            output.append(text, position, tokenStart);
+            while (output.length() > protectedLength && output.charAt(output.length() - 1) == ' ') {
+                output.setLength(output.length() - 1);
+            }
+            while (tokenEnd < length && text.charAt(tokenEnd) == ' ') {
+                tokenEnd++;
+            }
+            output.append(formats.get(tokenNr - 1));
+            protectedLength = output.length();
+            replaced[tokenNr - 1] = true;
+            position = tokenEnd;
+        }
+        output.append(text, position, length);
+        return output.toString();
+    }
+
+    /**
+     * Matches a single StringFormat snippet, not including any whitespace before the '%'.
+     *
+     * @param text      Text being scanned.
+     * @param start     Index of the character following the '%'.
+     * @param length    Length of the text.
+     * @return index of the character following the snippet, including any trailing whitespace, or -1 if there is no snippet.
+     */
+    private static int matchFormat(CharSequence text, int start, int length) {
+        // The argument index is optional, as are the flags, so try with and without each in the order the regex would.
+        final int argumentEnd = skipArgumentIndex(text, start, length);
+        int conversionEnd = -1;
+        if (argumentEnd > start) {
+            conversionEnd = matchAfterArgumentIndex(text, argumentEnd, length);
+        }
+        if (conversionEnd < 0) {
+            conversionEnd = matchAfterArgumentIndex(text, start, length);
+        }
+        if (conversionEnd < 0) {
+            return -1;
+        }
+
+        // Untranslatable chars and whitespace that follow the snippet are replaced with it.
+        int end = conversionEnd;
+        if (end < length && "-_:".indexOf(text.charAt(end)) >= 0) {
+            end++;
+        }
+        while (end < length && isRegexWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * @return index following the digits and '$' of an argument index, or start if there isn't one.
+     */
+    private static int skipArgumentIndex(CharSequence text, int start, int length) {
+        final int digitsEnd = skipDigits(text, start, length);
+        return (digitsEnd < length && text.charAt(digitsEnd) == '$') ? digitsEnd + 1 : start;
+    }
+
+    private static int matchAfterArgumentIndex(CharSequence text, int start, int length) {
+        if (start < length && FLAGS.indexOf(text.charAt(start)) >= 0) {
+            final int end = matchAfterFlags(text, start + 1, length);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return matchAfterFlags(text, start, length);
+    }
+
+    /**
+     * The width is greedy. Giving back width digits can never help, as a conversion is never a digit
+     * and a precision starting at a width digit would end where the width did.
+     */
+    private static int matchAfterFlags(CharSequence text, int start, int length) {
+        final int widthEnd = skipDigits(text, start, length);
+
+        // The precision starts with any character except a line terminator.
+        if (widthEnd < length && !isLineTerminator(text.charAt(widthEnd))) {
+            final int end = matchConversion(text, skipDigits(text, widthEnd + 1, length), length);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return matchConversion(text, widthEnd, length);
+    }
+
+    private static int matchConversion(CharSequence text, int start, int length) {
+        if (start >= length) {
+            return -1;
+        }
+        final char chr = text.charAt(start);
+        if (CONVERSIONS.indexOf(chr) >= 0) {
+            return start + 1;
+        }
+        if (chr == 't' && start + 1 < length && DATE_TIME_CONVERSIONS.indexOf(text.charAt(start + 1)) >= 0) {
+            return start + 2;
+        }
+        return -1;
+    }
+
+    private static int skipDigits(CharSequence text, int start, int length) {
+        int end = start;
+        while (end < length && isDigit(text.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int indexOf(CharSequence text, char chr, int start, int length) {
+        for (int i = start; i < length; i++) {
+            if (text.charAt(i) == chr) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfToken(CharSequence text, int start, int length) {
+        final int lastStart = length - TOKEN_PREFIX.length();
+        for (int i = start; i <= lastStart; i++) {
+            if (text.charAt(i) == 'S' && regionMatches(text, i, TOKEN_PREFIX)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(CharSequence text, int start, String prefix) {
+        for (int i = 1; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char chr) {
+        return chr >= '0' && chr <= '9';
+    }
+
+    /**
+     * @return true if the char matches the regex \s, ie [ \t\n\x0B\f\r].
+     */
+    private static boolean isRegexWhitespace(char chr) {
+        return chr == ' ' || chr == '\t' || chr == '\n' || chr == '\u000B' || chr == '\f' || chr == '\r';
+    }
+
+    /**
+     * @return true if the char is one that the regex '.' doesn't match.
+     */
+    private static boolean isLineTerminator(char chr) {
+        return chr == '\n' || chr == '\r' || chr == '\u0085' || chr == '\u2028' || chr == '\u2029';
+    }
+}
@@ -0,0 +1,182 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for holding recent translations in memory so that repeated texts are only translated once.
+ * <p/>
+ * The cache is bounded and evicts using {@link SieveCache}. When several threads ask for the same
+ * (text, sourceLanguage, targetLanguage) at the same time only one of them calls the decorated Translator,
+ * the others wait for and share its result.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class TranslationCacheDecorator implements Translator {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final Translator translator;
+    private final SieveCache<String, String> cache;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<String, Flight>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param translator    Translator to use for any text not in the cache.
+     * @param maxEntries    Maximum number of translations to hold.
+     */
+    public TranslationCacheDecorator(Translator translator, int maxEntries) {
+        this.translator = translator;
+        this.cache = new SieveCache<String, String>(maxEntries);
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        return translateAll(Collections.singletonList(text), sourceLanguage, targetLanguage).get(0);
+    }
+
+    /**
+     * Translates all of the texts that are neither cached nor already being translated by another thread in a single batch.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        final List<String> translations = new ArrayList<String>(texts.size());
+
+        // Flights this thread is responsible for, and flights of other threads (or duplicates) to wait on.
+        final List<Flight> ownFlights = new ArrayList<Flight>();
+        final List<CharSequence> ownTexts = new ArrayList<CharSequence>();
+        final List<Integer> waitingIndexes = new ArrayList<Integer>();
+        final List<Flight> waitingFlights = new ArrayList<Flight>();
+
+        for (final CharSequence text : texts) {
+            final String key = getKey(text, sourceLanguage, targetLanguage);
+            final String cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                translations.add(cached);
+                continue;
+            }
+
+            final Flight flight = new Flight(key);
+            final Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                misses.incrementAndGet();
+                ownFlights.add(flight);
+                ownTexts.add(text);
+                waitingFlights.add(flight);
+            } else {
+                coalesced.incrementAndGet();
+                waitingFlights.add(existing);
+            }
+            waitingIndexes.add(translations.size());
+            translations.add(null); // Replaced once the flight lands.
+        }
+
+        if (!ownTexts.isEmpty()) {
+            translateOwnFlights(ownFlights, ownTexts, sourceLanguage, targetLanguage);
+        }
+
+        for (int i = 0; i < waitingFlights.size(); i++) {
+            translations.set(waitingIndexes.get(i), waitingFlights.get(i).await());
+        }
+        return translations;
+    }
+
+    private void translateOwnFlights(List<Flight> flights, List<CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        try {
+            final List<String> translations = translator.translateAll(texts, sourceLanguage, targetLanguage);
+            for (int i = 0; i < flights.size(); i++) {
+                final Flight flight = flights.get(i);
+                cache.put(flight.key, translations.get(i));
+                flight.land(translations.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (final Flight flight : flights) {
+                flight.crash(e);
+            }
+            throw e;
+        } finally {
+            for (final Flight flight : flights) {
+                if (!flight.isDone()) {
+                    // Never leave anyone waiting on a flight that will not land.
+                    flight.crash(new TranslationException("Translation was abandoned", null));
+                }
+                inFlight.remove(flight.key, flight);
+            }
+        }
+    }
+
+    private String getKey(CharSequence text, String sourceLanguage, String targetLanguage) {
+        return sourceLanguage + KEY_SEPARATOR + targetLanguage + KEY_SEPARATOR + text;
+    }
+
+    /**
+     * @return number of translations that were served from the cache.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of translations that had to be passed on to the decorated Translator.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of translations that shared the result of an identical translation that was already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * A translation that is in progress, whose result is shared by everyone asking for the same key.
+     */
+    private static final class Flight extends FutureTask<String> {
+
+        private static final Callable<String> NOT_RUN = new Callable<String>() {
+            public String call() {
+                throw new IllegalStateException("A Flight is completed by its owner, not run");
+            }
+        };
+
+        private final String key;
+
+        private Flight(String key) {
+            super(NOT_RUN);
+            this.key = key;
+        }
+
+        void land(String translation) {
+            set(translation);
+        }
+
+        void crash(Throwable cause) {
+            setException(cause);
+        }
+
+        String await() {
+            try {
+                return get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TranslationException("Interrupted waiting for translation", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new TranslationException("Could not translate", e.getCause());
+            }
+        }
+    }
+}
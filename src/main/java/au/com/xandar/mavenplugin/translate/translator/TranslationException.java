@@ -4,6 +4,9 @@ package au.com.xandar.mavenplugin.translate.translator;
  * Represents a failure to translate.
  * <p/>
  * I'd like to say "a failure to communicate", but this class is neither Cool Hand Luke nor the Captain.
+ * <p/>
+ * When the failure came from an HTTP response its status code and any Retry-After period are kept,
+ * so that the {@link RetryingTranslator} can tell a transient failure from a permanent one.
  *
  * User: William
  * Date: 22/08/11
@@ -11,7 +14,36 @@ package au.com.xandar.mavenplugin.translate.translator;
  */
 public class TranslationException extends RuntimeException {
 
+    private final int statusCode;
+    private final long retryAfterMillis;
+
     public TranslationException(String msg, Throwable th) {
+        this(msg, th, -1, -1);
+    }
+
+    /**
+     * @param msg               Description of the failure.
+     * @param th                Cause of the failure, or null.
+     * @param statusCode        HTTP status code of the response, or -1 if there was no response.
+     * @param retryAfterMillis  Milliseconds the service asked us to wait before retrying, or -1 if it didn't say.
+     */
+    public TranslationException(String msg, Throwable th, int statusCode, long retryAfterMillis) {
         super(msg, th);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return HTTP status code of the response, or -1 if there was no response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return milliseconds the service asked us to wait before retrying, or -1 if it didn't say.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
     }
 }
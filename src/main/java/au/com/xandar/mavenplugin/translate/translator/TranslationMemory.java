@@ -0,0 +1,290 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent store of previous translations, keyed by source text, source language, target language and provider.
+ * <p/>
+ * Each (provider, sourceLanguage, targetLanguage) combination is held in its own append-only UTF-8 file
+ * within the memory folder, one <code>source TAB translation</code> entry per line.
+ * Entries are only ever appended, each while holding a lock on the file, so the same folder can be shared by many builds and branches
+ * even when they run at the same time. A build that is killed part way through at worst leaves a partial last line,
+ * which is ignored when the file is loaded and removed before the next entry is appended.
+ * <p/>
+ * NB file locks are advisory on some platforms and may not be supported by network file systems,
+ * so only share a folder on a network drive between builds that don't run at the same time.
+ * <p/>
+ * Instances are safe for use by multiple threads.
+ */
+public final class TranslationMemory {
+
+    private static final String FILE_SUFFIX = ".tm";
+    private static final String ENCODING = "UTF-8";
+    private static final byte LINE_FEED = '\n';
+
+    private final File folder;
+    private final Map<String, Segment> segments = new HashMap<String, Segment>();
+
+    /**
+     * @param folder    Folder in which the translation memory is persisted. Created if it doesn't exist.
+     */
+    public TranslationMemory(File folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * @param text              Source text.
+     * @param provider          Name of the translation provider, eg Google or Bing.
+     * @param sourceLanguage    Language of the source text.
+     * @param targetLanguage    Language of the translation.
+     * @return the remembered translation of the text or null if there is none.
+     */
+    public String get(CharSequence text, String provider, String sourceLanguage, String targetLanguage) {
+        return getSegment(provider, sourceLanguage, targetLanguage).get(text.toString());
+    }
+
+    /**
+     * Remembers a translation, persisting it immediately.
+     *
+     * @param text              Source text.
+     * @param translation       Translation of the source text.
+     * @param provider          Name of the translation provider, eg Google or Bing.
+     * @param sourceLanguage    Language of the source text.
+     * @param targetLanguage    Language of the translation.
+     * @throws TranslationException if the translation could not be persisted.
+     */
+    public void put(CharSequence text, String translation, String provider, String sourceLanguage, String targetLanguage) {
+        getSegment(provider, sourceLanguage, targetLanguage).put(text.toString(), translation);
+    }
+
+    /**
+     * Closes any files that were opened for writing.
+     *
+     * @throws IOException if a file could not be closed.
+     */
+    public synchronized void close() throws IOException {
+        IOException failure = null;
+        for (final Segment segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        segments.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized Segment getSegment(String provider, String sourceLanguage, String targetLanguage) {
+        final String name = provider + File.separator + sourceLanguage + "_" + targetLanguage;
+        Segment segment = segments.get(name);
+        if (segment == null) {
+            segment = new Segment(new File(folder, name + FILE_SUFFIX));
+            segments.put(name, segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Translations for a single (provider, sourceLanguage, targetLanguage), loaded lazily from its file.
+     */
+    private static final class Segment {
+
+        private final File file;
+        private Map<String, String> translations;
+        private RandomAccessFile output;
+
+        private Segment(File file) {
+            this.file = file;
+        }
+
+        synchronized String get(String text) {
+            return getTranslations().get(text);
+        }
+
+        synchronized void put(String text, String translation) {
+            final String previous = getTranslations().put(text, translation);
+            if (translation.equals(previous)) {
+                return;
+            }
+            try {
+                if (output == null) {
+                    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                        throw new IOException("Could not create folder : " + file.getParentFile());
+                    }
+                    output = new RandomAccessFile(file, "rw");
+                }
+                append((escape(text) + '\t' + escape(translation) + '\n').getBytes(ENCODING));
+            } catch (IOException e) {
+                throw new TranslationException("Could not write translation memory : " + file, e);
+            }
+        }
+
+        synchronized void close() throws IOException {
+            if (output != null) {
+                output.close();
+                output = null;
+            }
+        }
+
+        /**
+         * Appends an entry while holding a lock on the file, so that entries from other builds are never interleaved with it.
+         * <p/>
+         * A JVM may only hold one lock on a file, so appends by every instance are serialised before taking the lock.
+         */
+        private void append(byte[] entry) throws IOException {
+            final FileChannel channel = output.getChannel();
+            synchronized (TranslationMemory.class) {
+                final FileLock lock = channel.lock();
+                try {
+                    final long end = getEndOfLastLine(channel);
+                    if (end < channel.size()) {
+                        channel.truncate(end); // Partial entry left by a build that was killed while writing it.
+                    }
+                    final ByteBuffer buffer = ByteBuffer.wrap(entry);
+                    long position = end;
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+
+        /**
+         * @return the position just after the last line feed in the file, or zero if it has none.
+         */
+        private long getEndOfLastLine(FileChannel channel) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long end = channel.size();
+            while (end > 0) {
+                final long start = Math.max(0, end - buffer.capacity());
+                buffer.clear();
+                buffer.limit((int) (end - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == LINE_FEED) {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return 0;
+        }
+
+        private Map<String, String> getTranslations() {
+            if (translations == null) {
+                translations = new HashMap<String, String>();
+                if (file.exists()) {
+                    try {
+                        load();
+                    } catch (IOException e) {
+                        throw new TranslationException("Could not read translation memory : " + file, e);
+                    }
+                }
+            }
+            return translations;
+        }
+
+        /**
+         * Loads every entry that ends in a line feed. Any characters after the last line feed are a partial entry,
+         * either left by a build that was killed while writing it or being written by another build, so are ignored.
+         */
+        private void load() throws IOException {
+            final Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ENCODING));
+            try {
+                final StringBuilder line = new StringBuilder();
+                int ch;
+                while ((ch = reader.read()) >= 0) {
+                    if (ch != '\n') {
+                        line.append((char) ch);
+                        continue;
+                    }
+                    final int separator = line.indexOf("\t");
+                    if (separator != -1) {
+                        translations.put(unescape(line.substring(0, separator)), unescape(line.substring(separator + 1)));
+                    }
+                    line.setLength(0);
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * @param text  Text to escape.
+     * @return the text with any back slash, tab, carriage return or line feed escaped so that it fits on one line.
+     */
+    static String escape(String text) {
+        final StringBuilder sb = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            final char ch = text.charAt(i);
+            switch (ch) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param text  Text to unescape.
+     * @return the text with any escapes added by {@link #escape(String)} removed.
+     */
+    static String unescape(String text) {
+        final StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            final char ch = text.charAt(i);
+            if ((ch == '\\') && (i + 1 < text.length())) {
+                final char next = text.charAt(++i);
+                switch (next) {
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    default:
+                        sb.append(next);
+                }
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responsible for serving translations from a {@link TranslationMemory} and only passing
+ * texts that have not been translated before on to the decorated Translator.
+ */
+public final class TranslationMemoryDecorator implements Translator {
+
+    private final Translator translator;
+    private final TranslationMemory memory;
+    private final String provider;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param translator    Translator to use for any text not found in the memory.
+     * @param memory        TranslationMemory in which to find and record translations.
+     * @param provider      Name of the translation provider, used to keep translations from different providers apart.
+     */
+    public TranslationMemoryDecorator(Translator translator, TranslationMemory memory, String provider) {
+        this.translator = translator;
+        this.memory = memory;
+        this.provider = provider;
+    }
+
+    public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+        final String remembered = memory.get(text, provider, sourceLanguage, targetLanguage);
+        if (remembered != null) {
+            hits.incrementAndGet();
+            return remembered;
+        }
+
+        misses.incrementAndGet();
+        final String translation = translator.translate(text, sourceLanguage, targetLanguage);
+        memory.put(text, translation, provider, sourceLanguage, targetLanguage);
+        return translation;
+    }
+
+    /**
+     * Translates all of the texts that are not in the memory in a single batch.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+        final List<String> translations = new ArrayList<String>(texts.size());
+        final List<CharSequence> unknownTexts = new ArrayList<CharSequence>();
+        final List<Integer> unknownIndexes = new ArrayList<Integer>();
+        for (final CharSequence text : texts) {
+            final String remembered = memory.get(text, provider, sourceLanguage, targetLanguage);
+            if (remembered == null) {
+                unknownIndexes.add(translations.size());
+                unknownTexts.add(text);
+            }
+            translations.add(remembered);
+        }
+
+        hits.addAndGet(texts.size() - unknownTexts.size());
+        misses.addAndGet(unknownTexts.size());
+        if (unknownTexts.isEmpty()) {
+            return translations;
+        }
+
+        final List<String> newTranslations = translator.translateAll(unknownTexts, sourceLanguage, targetLanguage);
+        for (int i = 0; i < unknownTexts.size(); i++) {
+            final String translation = newTranslations.get(i);
+            memory.put(unknownTexts.get(i), translation, provider, sourceLanguage, targetLanguage);
+            translations.set(unknownIndexes.get(i), translation);
+        }
+        return translations;
+    }
+
+    /**
+     * @return number of translations that were served from the memory.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of translations that had to be passed on to the decorated Translator.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -1,6 +1,6 @@
 package au.com.xandar.mavenplugin.translate.translator;
 
-import com.google.api.translate.Language;
+import java.util.List;
 
 /**
  * Responsible for translating text from one language to another.
@@ -19,4 +19,15 @@ public interface Translator {
      * @throws TranslationException if the text could not be translated.
      */
     public String translate(CharSequence text, String sourceLanguage, String targetLanguage);
+
+    /**
+     * Translates many texts at once, allowing them to be sent to the translation service in as few requests as possible.
+     *
+     * @param texts             Texts to translate.
+     * @param sourceLanguage    Source language.
+     * @param targetLanguage    Language into which to translate.
+     * @return the texts translated into the target language, in the same order as the texts.
+     * @throws TranslationException if the texts could not be translated.
+     */
+    public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage);
 }
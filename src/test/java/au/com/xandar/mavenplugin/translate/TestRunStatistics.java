@@ -0,0 +1,34 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing RunStatistics.
+ */
+public class TestRunStatistics {
+
+    @Test
+    public void testReportIsValidJson() throws Exception {
+        final RunStatistics statistics = new RunStatistics();
+        statistics.setTranslationType("propertiesFile");
+        statistics.recordFile(new TransformUnit(new File("C:\\src\\\"quoted\"\n.properties"), "hash", new File("target"), "de"), 1500000L);
+
+        final StringWriter writer = new StringWriter();
+        statistics.write(writer);
+
+        final JSONObject report = new JSONObject(writer.toString());
+        Assert.assertEquals("propertiesFile", report.getString("translationType"));
+        Assert.assertTrue(report.isNull("service"));
+        Assert.assertTrue(report.isNull("translationCache"));
+        final JSONArray files = report.getJSONArray("files");
+        Assert.assertEquals(1, files.length());
+        Assert.assertEquals("C:\\src\\\"quoted\"\n.properties", files.getJSONObject(0).getString("sourceFile"));
+        Assert.assertTrue(files.getJSONObject(0).getDouble("wallTimeMillis") == 1.5);
+    }
+}
@@ -0,0 +1,56 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import au.com.xandar.mavenplugin.translate.translator.AbstractTranslator;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing TermParser.
+ */
+public class TestTermParser {
+
+    private static class TestTranslator extends AbstractTranslator {
+        private final List<String> request = new ArrayList<String>();
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            request.add(text.toString());
+            return "[" + text + "]";
+        }
+    }
+
+    private final TermParser parser = new TermParser(new SystemStreamLog());
+
+    @Test
+    public void testMarkupIsNotTranslated() {
+        final TestTranslator translator = new TestTranslator();
+        final OrderedTerms terms = new OrderedTerms();
+        parser.parse("<b>Hello world</b> {0} - $link]Go there!", new EventProcessor(translator, "en", "de", "key", terms));
+
+        Assert.assertEquals("<b>[Hello world]</b> {0} - $link][Go there!]", terms.getProperty("key"));
+        Assert.assertEquals(2, translator.request.size());
+    }
+
+    @Test
+    public void testNonLatinContentIsTranslated() {
+        // German and Japanese text followed by a mathematical bold A, which is a surrogate pair.
+        final TestTranslator translator = new TestTranslator();
+        final OrderedTerms terms = new OrderedTerms();
+        parser.parse("Gr\u00FC\u00DFe aus \u6771\u4EAC \uD835\uDC00 <br>", new EventProcessor(translator, "de", "en", "key", terms));
+
+        Assert.assertEquals("[Gr\u00FC\u00DFe aus \u6771\u4EAC \uD835\uDC00] <br>", terms.getProperty("key"));
+    }
+
+    @Test
+    public void testWhitespaceAroundContentIsKept() {
+        final TestTranslator translator = new TestTranslator();
+        final OrderedTerms terms = new OrderedTerms();
+        terms.setProperty("key", "Existing ");
+        parser.parse("  Hello <br>\t world  ", new EventProcessor(translator, "en", "de", "key", terms));
+
+        Assert.assertEquals("Existing   [Hello] <br>\t [world]  ", terms.getProperty("key"));
+        Assert.assertEquals("Hello", translator.request.get(0));
+    }
+}
@@ -0,0 +1,75 @@
+package au.com.xandar.mavenplugin.translate;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Responsible for testing TransformManifest.
+ */
+public class TestTransformManifest {
+
+    private static final File OUTPUT_FOLDER = new File("target/test-transform-manifest");
+    private static final File MANIFEST_FILE = new File(OUTPUT_FOLDER, "manifest.properties");
+    private static final String CONFIGURATION = "translationType=androidStrings";
+
+    private final File sourceFile = new File(OUTPUT_FOLDER, "strings.xml");
+    private final File targetFile = new File(OUTPUT_FOLDER, "values-de/strings.xml");
+
+    @Before
+    public void setUp() throws Exception {
+        MANIFEST_FILE.delete();
+        writeFile(sourceFile, "<resources/>");
+        writeFile(targetFile, "<resources/>");
+    }
+
+    @Test
+    public void testUnchangedTransformIsUpToDate() throws Exception {
+        final TransformManifest manifest = new TransformManifest(MANIFEST_FILE, CONFIGURATION);
+        manifest.load();
+        final String sourceHash = TransformManifest.hash(sourceFile);
+        Assert.assertFalse(manifest.isUpToDate(sourceHash, targetFile));
+
+        manifest.update(sourceHash, targetFile);
+        manifest.save();
+
+        final TransformManifest nextBuild = new TransformManifest(MANIFEST_FILE, CONFIGURATION);
+        nextBuild.load();
+        Assert.assertTrue(nextBuild.isUpToDate(sourceHash, targetFile));
+    }
+
+    @Test
+    public void testChangesAreDetected() throws Exception {
+        final TransformManifest manifest = new TransformManifest(MANIFEST_FILE, CONFIGURATION);
+        final String sourceHash = TransformManifest.hash(sourceFile);
+        manifest.update(sourceHash, targetFile);
+        manifest.save();
+
+        final TransformManifest otherConfiguration = new TransformManifest(MANIFEST_FILE, CONFIGURATION + ",sourceLanguage=fr");
+        otherConfiguration.load();
+        Assert.assertFalse(otherConfiguration.isUpToDate(sourceHash, targetFile));
+
+        final TransformManifest nextBuild = new TransformManifest(MANIFEST_FILE, CONFIGURATION);
+        nextBuild.load();
+        writeFile(sourceFile, "<resources><string name=\"ok\">OK</string></resources>");
+        Assert.assertFalse(nextBuild.isUpToDate(TransformManifest.hash(sourceFile), targetFile));
+
+        writeFile(targetFile, "<resources>edited</resources>");
+        Assert.assertFalse(nextBuild.isUpToDate(sourceHash, targetFile));
+    }
+
+    private void writeFile(File file, String text) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(text.getBytes("UTF-8"));
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package au.com.xandar.mavenplugin.translate.transformer.android;
 
+import au.com.xandar.mavenplugin.translate.transformer.SnapshotLocator;
+import au.com.xandar.mavenplugin.translate.translator.AbstractTranslator;
 import au.com.xandar.mavenplugin.translate.translator.BingTranslator;
 import au.com.xandar.mavenplugin.translate.translator.GoogleTranslator;
 import org.junit.Assert;
@@ -7,6 +9,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Responsible for testing the AndroidStringsParser.
@@ -64,6 +68,48 @@ public class TestAndroidStringsTransformer {
 
     private static final File SOURCE_FOLDER = new File("src/test/resources/au/com/xandar/mavenplugin/translate/transformer");
 
+    private static class CountingTranslator extends AbstractTranslator {
+        private int nrTranslations;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            nrTranslations++;
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    @Test
+    public void testOnlyChangedStringsAreTranslated() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "incremental/StringArray-base.xml");
+        final File targetFile = new File(OUTPUT_FOLDER, "incremental/StringArray-de.xml");
+        final File snapshotFile = new File(OUTPUT_FOLDER, "incremental/StringArray-de.snapshot");
+        snapshotFile.delete();
+
+        final String source = readFile(new File(SOURCE_FOLDER, "StringArray-base.xml"));
+        writeFile(sourceFile, source);
+
+        final CountingTranslator countingTranslator = new CountingTranslator();
+        final AndroidStringsTransformer transformer = new AndroidStringsTransformer(SOURCE_LANG, countingTranslator);
+        transformer.setSnapshotLocator(new SnapshotLocator() {
+            public File getSnapshotFile(File file) {
+                return snapshotFile;
+            }
+        });
+
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(5, countingTranslator.nrTranslations);
+        final String firstTranslation = readFile(targetFile);
+
+        countingTranslator.nrTranslations = 0;
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(0, countingTranslator.nrTranslations);
+        Assert.assertEquals(firstTranslation, readFile(targetFile));
+
+        writeFile(sourceFile, source.replace("Can you find the 9 letter word?", "Can you find the longest word?"));
+        countingTranslator.nrTranslations = 0;
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(1, countingTranslator.nrTranslations);
+        Assert.assertEquals(firstTranslation.replace("Can you find the 9 letter word?", "Can you find the longest word?"), readFile(targetFile));
+    }
+
     private void testResource(String resourceName) throws Exception {
         for (final String targetLang : TARGET_LANG) {
             final String outputFileName = resourceName + "-" + targetLang + ".xml";
@@ -82,6 +128,82 @@ public class TestAndroidStringsTransformer {
         }
     }
 
+    @Test
+    public void testBatchesInFlightAreAssembledInOrder() throws Exception {
+        final File sourceFile = new File(SOURCE_FOLDER, "StringArray-base.xml");
+        final File serialFile = new File(OUTPUT_FOLDER, "async/StringArray-serial.xml");
+        final File asyncFile = new File(OUTPUT_FOLDER, "async/StringArray-async.xml");
+
+        final AndroidStringsTransformer serialTransformer = new AndroidStringsTransformer(SOURCE_LANG, new CountingTranslator());
+        serialTransformer.transform(sourceFile, serialFile, "de");
+
+        // Translate one string per batch with later strings completing first.
+        final AndroidStringsTransformer asyncTransformer = new AndroidStringsTransformer(SOURCE_LANG, new AbstractTranslator() {
+            public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+                try {
+                    Thread.sleep(Math.max(0, 200 - 2 * text.length()));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return targetLanguage + ":" + text;
+            }
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            asyncTransformer.setBatchSize(1);
+            asyncTransformer.setExecutor(executor, 3);
+            asyncTransformer.transform(sourceFile, asyncFile, "de");
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(readFile(serialFile), readFile(asyncFile));
+    }
+
+    @Test
+    public void testParsedSourceIsReusedForEachLanguage() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "parse-once/StringArray-base.xml");
+        final String source = readFile(new File(SOURCE_FOLDER, "StringArray-base.xml"));
+        writeFile(sourceFile, source);
+
+        final AndroidStringsTransformer parseEachTime = new AndroidStringsTransformer(SOURCE_LANG, new CountingTranslator());
+        final AndroidStringsTransformer parseOnce = new AndroidStringsTransformer(SOURCE_LANG, new CountingTranslator());
+        parseOnce.setParseOnce(true);
+        for (final String targetLang : TARGET_LANG) {
+            final File expectedFile = new File(OUTPUT_FOLDER, "parse-once/StringArray-expected-" + targetLang + ".xml");
+            final File actualFile = new File(OUTPUT_FOLDER, "parse-once/StringArray-" + targetLang + ".xml");
+            parseEachTime.transform(sourceFile, expectedFile, targetLang);
+            parseOnce.transform(sourceFile, actualFile, targetLang);
+            Assert.assertEquals(readFile(expectedFile), readFile(actualFile));
+        }
+
+        // A source that has changed since it was parsed must be parsed again.
+        writeFile(sourceFile, source.replace("Can you find the 9 letter word?", "Can you find the longest word?"));
+        final File changedFile = new File(OUTPUT_FOLDER, "parse-once/StringArray-changed.xml");
+        parseOnce.transform(sourceFile, changedFile, "de");
+        Assert.assertTrue(readFile(changedFile).contains("Can you find the longest word?"));
+
+        // A released source is parsed again, even when it looks unchanged.
+        final long lastModified = sourceFile.lastModified();
+        writeFile(sourceFile, source.replace("Can you find the 9 letter word?", "Can you find the biggest word?"));
+        sourceFile.setLastModified(lastModified);
+        parseOnce.transform(sourceFile, changedFile, "de");
+        Assert.assertTrue(readFile(changedFile).contains("Can you find the longest word?"));
+        parseOnce.release(sourceFile);
+        parseOnce.transform(sourceFile, changedFile, "de");
+        Assert.assertTrue(readFile(changedFile).contains("Can you find the biggest word?"));
+    }
+
+    private void writeFile(File file, String text) throws IOException {
+        file.getParentFile().mkdirs();
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
     private String readFile(File file) throws IOException {
         final StringBuilder sb = new StringBuilder();
         final LineNumberReader reader = new LineNumberReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
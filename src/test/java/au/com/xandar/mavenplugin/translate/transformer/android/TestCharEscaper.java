@@ -0,0 +1,81 @@
+package au.com.xandar.mavenplugin.translate.transformer.android;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing that CharEscaper escapes exactly as the original in place implementation did.
+ */
+public class TestCharEscaper {
+
+    private final CharEscaper charEscaper = new CharEscaper();
+
+    @Test
+    public void testExamples() {
+        Assert.assertEquals("Don't say \"no\"\\n", charEscaper.removeBackslashes("Don\\'t say \\\"no\\\"\\n"));
+        Assert.assertEquals("Don\\'t say \\\"no\\\"\\n", charEscaper.addBackslashes("Don't say \"no\"\\n"));
+        Assert.assertEquals("a\\b", charEscaper.removeBackslashes("a\\\\b"));
+        Assert.assertEquals("trailing\\", charEscaper.removeBackslashes("trailing\\"));
+        Assert.assertEquals("\\'", charEscaper.addBackslashes("'"));
+        Assert.assertEquals("", charEscaper.addBackslashes(""));
+    }
+
+    @Test
+    public void testRandomTextMatchesOriginal() {
+        final String alphabet = "\\\\\\'\"nab";
+        final Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            final StringBuilder expected = new StringBuilder(text);
+            removeBackslashesInPlace(expected);
+            Assert.assertEquals("Removing from '" + text + "'", expected.toString(), charEscaper.removeBackslashes(text));
+
+            expected.setLength(0);
+            expected.append(text);
+            addBackslashesInPlace(expected);
+            Assert.assertEquals("Adding to '" + text + "'", expected.toString(), charEscaper.addBackslashes(text));
+        }
+    }
+
+    private void removeBackslashesInPlace(StringBuilder text) {
+        boolean escaping = false;
+        for (int i = 0; i < text.length(); ) {
+            final char chr = text.charAt(i);
+            if (escaping && (chr == 'n')) {
+                escaping = false;
+                i++;
+            } else if (escaping) {
+                text.deleteCharAt(i - 1);
+                escaping = false;
+            } else if (chr == '\\') {
+                escaping = true;
+                i++;
+            } else {
+                escaping = false;
+                i++;
+            }
+        }
+    }
+
+    private void addBackslashesInPlace(StringBuilder text) {
+        for (int i = 0; i < text.length(); ) {
+            final char chr = text.charAt(i);
+            if ((chr == '\\') && (i + 1 < text.length()) && (text.charAt(i + 1) == 'n')) {
+                i++;
+            } else if ((chr == '\'') || (chr == '\\') || (chr == '"')) {
+                text.insert(i, '\\');
+                i++;
+                i++;
+            } else {
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing that FileChannelReader decodes a file exactly as an InputStreamReader does.
+ */
+public class TestFileChannelReader {
+
+    private static final File OUTPUT_FOLDER = new File("target/test-translation-hack/file-channel-reader");
+
+    // ASCII, Latin1, CJK and a surrogate pair, so that mapped regions split multi byte characters.
+    private static final String ALPHABET = "ab =#\\\n\r\u00E9\u00FC\u6771\uD835\uDC00";
+
+    @Test
+    public void testDecodesAsInputStreamReader() throws Exception {
+        final Random random = new Random(42);
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            final char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            if (Character.isHighSurrogate(c)) {
+                text.append(ALPHABET, ALPHABET.length() - 2, ALPHABET.length());
+            } else if (!Character.isLowSurrogate(c)) {
+                text.append(c);
+            }
+        }
+
+        for (final String encoding : new String[] {"UTF-8", "ISO-8859-1", "UTF-16"}) {
+            final File file = new File(OUTPUT_FOLDER, "text-" + encoding + ".txt");
+            writeFile(file, text.toString().getBytes(encoding));
+
+            final String expected = readFile(file, encoding, -1, 0);
+            Assert.assertEquals(encoding + " read", expected, readFile(file, encoding, Long.MAX_VALUE, 0));
+            Assert.assertEquals(encoding + " mapped", expected, readFile(file, encoding, 0, 4096));
+            Assert.assertEquals(encoding + " mapped in small regions", expected, readFile(file, encoding, 0, 7));
+        }
+    }
+
+    @Test
+    public void testMalformedInputIsReplaced() throws Exception {
+        final File file = new File(OUTPUT_FOLDER, "malformed.txt");
+        writeFile(file, new byte[] {'a', (byte) 0xC3, 'b', (byte) 0xE6, (byte) 0x9D});
+
+        Assert.assertEquals(readFile(file, "UTF-8", -1, 0), readFile(file, "UTF-8", 0, 4096));
+    }
+
+    /**
+     * @param mapThreshold  Minimum file size to memory map, or -1 to read the file with an InputStreamReader.
+     */
+    private String readFile(File file, String encoding, long mapThreshold, int mapRegionSize) throws IOException {
+        final FileInputStream stream = new FileInputStream(file);
+        try {
+            final Reader reader = (mapThreshold < 0)
+                    ? new InputStreamReader(stream, encoding)
+                    : new FileChannelReader(stream.getChannel(), Charset.forName(encoding), mapThreshold, mapRegionSize);
+            final StringBuilder sb = new StringBuilder();
+            final char[] buffer = new char[100];
+            int nrRead;
+            while ((nrRead = reader.read(buffer)) >= 0) {
+                sb.append(buffer, 0, nrRead);
+            }
+            return sb.toString();
+        } finally {
+            stream.close();
+        }
+    }
+
+    private void writeFile(File file, byte[] content) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(content);
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package au.com.xandar.mavenplugin.translate.transformer.properties;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+import au.com.xandar.mavenplugin.translate.transformer.SnapshotLocator;
+import au.com.xandar.mavenplugin.translate.translator.AbstractTranslator;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing the PropertiesTransformer.
+ */
+public class TestPropertiesTransformer {
+
+    private static final File OUTPUT_FOLDER = new File("target/test-translation-hack/properties-transformer");
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private static final String SOURCE = "# Messages\n"
+            + "\n"
+            + "greeting = Hello <b>{0}</b>\n"
+            + "  ! Shown on exit\n"
+            + "farewell:Good bye \\\n"
+            + "    for now\n"
+            + "empty=\n";
+
+    private static class CountingTranslator extends AbstractTranslator {
+        private int nrTranslations;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            nrTranslations++;
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    @Test
+    public void testEntriesAreTranslatedInPlaceWithComments() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "Messages.properties");
+        final File targetFile = new File(OUTPUT_FOLDER, "Messages_de.properties");
+        writeFile(sourceFile, SOURCE);
+
+        final PropertiesTransformer transformer = new PropertiesTransformer("en", new CountingTranslator(), new SystemStreamLog());
+        transformer.transform(sourceFile, targetFile, "de");
+
+        final String expected = "# Messages\n"
+                + "\n"
+                + "greeting=de\\:Hello <b>{0}</b>\n"
+                + "! Shown on exit\n"
+                + "farewell=de\\:Good bye for now\n"
+                + "empty=\n";
+        Assert.assertEquals(expected.replace("\n", LINE_SEPARATOR), readFile(targetFile));
+    }
+
+    @Test
+    public void testCharactersOutsideTheTargetEncodingAreEscaped() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "escaped/Messages.properties");
+        final File targetFile = new File(OUTPUT_FOLDER, "escaped/Messages_zh.properties");
+        writeFile(sourceFile, "greeting=Hello world\n"
+                + "accent=Caf\u00e9\n");
+
+        final PropertiesTransformer transformer = new PropertiesTransformer("en", new AbstractTranslator() {
+            public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+                return "Hello world".equals(text.toString()) ? "\u4f60\u597d\u4e16\u754c" : "Caf\u00e9";
+            }
+        }, new SystemStreamLog());
+        transformer.transform(sourceFile, targetFile, "zh");
+
+        // ISO-8859-1 can hold an accented letter but not Chinese.
+        final String expected = "greeting=\\u4F60\\u597D\\u4E16\\u754C\n"
+                + "accent=Caf\u00e9\n";
+        Assert.assertEquals(expected.replace("\n", LINE_SEPARATOR), readFile(targetFile));
+    }
+
+    @Test
+    public void testCommentsOutsideTheTargetEncodingAreEscaped() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "escaped-comments/Messages.properties");
+        final File targetFile = new File(OUTPUT_FOLDER, "escaped-comments/Messages_de.properties");
+        writeFile(sourceFile, "# \u554f\u5019\n"
+                + "# Caf\u00e9\n"
+                + "greeting=Hello\n", "UTF-8");
+
+        final PropertiesTransformer transformer = new PropertiesTransformer("en", new CountingTranslator(), new SystemStreamLog());
+        transformer.setSourceFileEncoding("UTF-8");
+        transformer.transform(sourceFile, targetFile, "de");
+
+        // ISO-8859-1 can hold an accented letter but not Chinese.
+        final String expected = "# \\u554F\\u5019\n"
+                + "# Caf\u00e9\n"
+                + "greeting=de\\:Hello\n";
+        Assert.assertEquals(expected.replace("\n", LINE_SEPARATOR), readFile(targetFile));
+    }
+
+    @Test
+    public void testOnlyChangedEntriesAreTranslated() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "incremental/Messages.properties");
+        final File targetFile = new File(OUTPUT_FOLDER, "incremental/Messages_de.properties");
+        final File snapshotFile = new File(OUTPUT_FOLDER, "incremental/Messages_de.snapshot");
+        snapshotFile.delete();
+        writeFile(sourceFile, SOURCE);
+
+        final CountingTranslator translator = new CountingTranslator();
+        final PropertiesTransformer transformer = new PropertiesTransformer("en", translator, new SystemStreamLog());
+        transformer.setSnapshotLocator(new SnapshotLocator() {
+            public File getSnapshotFile(File file) {
+                return snapshotFile;
+            }
+        });
+
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(2, translator.nrTranslations);
+        final String firstTranslation = readFile(targetFile);
+
+        translator.nrTranslations = 0;
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(0, translator.nrTranslations);
+        Assert.assertEquals(firstTranslation, readFile(targetFile));
+
+        writeFile(sourceFile, SOURCE.replace("Good bye", "See you"));
+        translator.nrTranslations = 0;
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(1, translator.nrTranslations);
+        Assert.assertEquals(firstTranslation.replace("Good bye", "See you"), readFile(targetFile));
+    }
+
+    @Test
+    public void testPreviousTranslationsOfMovedEntriesAreReused() throws Exception {
+        final File sourceFile = new File(OUTPUT_FOLDER, "moved/Messages.properties");
+        final File targetFile = new File(OUTPUT_FOLDER, "moved/Messages_de.properties");
+        final File snapshotFile = new File(OUTPUT_FOLDER, "moved/Messages_de.snapshot");
+        snapshotFile.delete();
+        writeFile(sourceFile, "a=Apple\nb=Banana\nc=Cherry\nd=Date\n");
+
+        final CountingTranslator translator = new CountingTranslator();
+        final PropertiesTransformer transformer = new PropertiesTransformer("en", translator, new SystemStreamLog());
+        transformer.setSnapshotLocator(new SnapshotLocator() {
+            public File getSnapshotFile(File file) {
+                return snapshotFile;
+            }
+        });
+        transformer.transform(sourceFile, targetFile, "de");
+
+        // Date moved to the top, Apple and Cherry removed and Fig added.
+        writeFile(sourceFile, "d=Date\nb=Banana\nf=Fig\n");
+        translator.nrTranslations = 0;
+        transformer.transform(sourceFile, targetFile, "de");
+        Assert.assertEquals(1, translator.nrTranslations);
+        final String expected = "d=de\\:Date\n"
+                + "b=de\\:Banana\n"
+                + "f=de\\:Fig\n";
+        Assert.assertEquals(expected.replace("\n", LINE_SEPARATOR), readFile(targetFile));
+    }
+
+    private void writeFile(File file, String text) throws IOException {
+        writeFile(file, text, "ISO-8859-1");
+    }
+
+    private void writeFile(File file, String text, String encoding) throws IOException {
+        file.getParentFile().mkdirs();
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), encoding);
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String readFile(File file) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final Reader reader = new InputStreamReader(new FileInputStream(file), "ISO-8859-1");
+        try {
+            final char[] buffer = new char[1024];
+            int nrRead;
+            while ((nrRead = reader.read(buffer)) >= 0) {
+                sb.append(buffer, 0, nrRead);
+            }
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package au.com.xandar.mavenplugin.translate.transformer.text;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import au.com.xandar.mavenplugin.translate.translator.AbstractTranslator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing the TextFileTransformer.
+ */
+public class TestTextFileTransformer {
+
+    private static final File OUTPUT_FOLDER = new File("target/test-translation-hack/text-transformer");
+
+    private static class UpperCaseTranslator extends AbstractTranslator {
+        private int maxBatchLength;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            try {
+                Thread.sleep(Math.max(0, 20 - text.length())); // Later, longer, segments complete first.
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return text.toString().toUpperCase();
+        }
+        @Override
+        public synchronized List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+            int length = 0;
+            for (final CharSequence text : texts) {
+                length += text.length();
+            }
+            maxBatchLength = Math.max(maxBatchLength, length);
+            return super.translateAll(texts, sourceLanguage, targetLanguage);
+        }
+    }
+
+    @Test
+    public void testSegmentsAreTranslatedWithinLimitAndWrittenInOrder() throws Exception {
+        final StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            source.append("Paragraph ").append(i).append(" has a sentence. And another one for good measure!\n");
+            if (i % 3 == 0) {
+                source.append("\n");
+            }
+        }
+        final File sourceFile = new File(OUTPUT_FOLDER, "manual.txt");
+        final File targetFile = new File(OUTPUT_FOLDER, "manual-de.txt");
+        writeFile(sourceFile, source.toString());
+
+        final UpperCaseTranslator translator = new UpperCaseTranslator();
+        final TextFileTransformer transformer = new TextFileTransformer("en", translator);
+        transformer.setMaxSegmentLength(100);
+        transformer.setBatchSize(3);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            transformer.setExecutor(executor, 4);
+            transformer.transform(sourceFile, targetFile, "de");
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(source.toString().toUpperCase(), readFile(targetFile));
+        Assert.assertTrue("Batch of " + translator.maxBatchLength + " chars", translator.maxBatchLength <= 100);
+    }
+
+    private void writeFile(File file, String text) throws IOException {
+        file.getParentFile().mkdirs();
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String readFile(File file) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            final char[] buffer = new char[1024];
+            int nrRead;
+            while ((nrRead = reader.read(buffer)) >= 0) {
+                sb.append(buffer, 0, nrRead);
+            }
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package au.com.xandar.mavenplugin.translate.transformer.text;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing that TextSegmenter splits a document into segments that reassemble into the document.
+ */
+public class TestTextSegmenter {
+
+    @Test
+    public void testParagraphsAreSegments() throws Exception {
+        final List<TextSegmenter.Segment> segments = segment("  First line\nsecond line.\n\n\r\n Next paragraph\n", 100);
+
+        Assert.assertEquals(3, segments.size());
+        assertSegment("  ", "First line\nsecond line.", segments.get(0));
+        assertSegment("\n\n\r\n ", "Next paragraph", segments.get(1));
+        assertSegment("\n", "", segments.get(2));
+    }
+
+    @Test
+    public void testLongParagraphsAreSplitBetweenSentences() throws Exception {
+        final List<TextSegmenter.Segment> segments = segment("One two. Three four? Five six seven", 20);
+
+        Assert.assertEquals(2, segments.size());
+        assertSegment("", "One two. Three four?", segments.get(0));
+        assertSegment(" ", "Five six seven", segments.get(1));
+    }
+
+    @Test
+    public void testRandomDocumentsAreReassembled() throws Exception {
+        final String alphabet = "ab .!\n\n\t";
+        final Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder document = new StringBuilder();
+            final int length = random.nextInt(200);
+            for (int j = 0; j < length; j++) {
+                document.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            final int maxLength = 2 + random.nextInt(30);
+            final StringBuilder reassembled = new StringBuilder();
+            for (final TextSegmenter.Segment segment : segment(document.toString(), maxLength)) {
+                Assert.assertTrue("Segment '" + segment.getText() + "' is longer than " + maxLength, segment.getText().length() <= maxLength);
+                reassembled.append(segment.getSeparator()).append(segment.getText());
+            }
+            Assert.assertEquals(document.toString(), reassembled.toString());
+        }
+    }
+
+    private List<TextSegmenter.Segment> segment(String document, int maxLength) throws IOException {
+        final TextSegmenter segmenter = new TextSegmenter(new StringReader(document), maxLength);
+        final List<TextSegmenter.Segment> segments = new ArrayList<TextSegmenter.Segment>();
+        TextSegmenter.Segment segment;
+        while ((segment = segmenter.next()) != null) {
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    private void assertSegment(String separator, String text, TextSegmenter.Segment segment) {
+        Assert.assertEquals(separator, segment.getSeparator());
+        Assert.assertEquals(text, segment.getText());
+    }
+}
@@ -0,0 +1,58 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing AbstractBatchTranslator.
+ */
+public class TestAbstractBatchTranslator {
+
+    private static class RecordingTranslator extends AbstractBatchTranslator {
+        private final List<List<String>> requests = new ArrayList<List<String>>();
+        private RecordingTranslator(int maxTextsPerRequest, int maxCharactersPerRequest) {
+            super(maxTextsPerRequest, maxCharactersPerRequest);
+        }
+        @Override
+        protected List<String> execute(List<String> batch, String sourceLanguage, String targetLanguage) {
+            requests.add(new ArrayList<String>(batch));
+            final List<String> translations = new ArrayList<String>();
+            for (final String text : batch) {
+                translations.add(targetLanguage + ":" + text);
+            }
+            return translations;
+        }
+    }
+
+    @Test
+    public void testTextsAreSplitIntoRequestsWithoutEmptyTexts() {
+        final RecordingTranslator translator = new RecordingTranslator(2, 100);
+        Assert.assertEquals(Arrays.asList("de:a", "", "de:b", "de:c", ""),
+                translator.translateAll(Arrays.asList("a", "", "b", "c", ""), "en", "de"));
+        Assert.assertEquals("", translator.translate("", "en", "de"));
+
+        final List<List<String>> expected = new ArrayList<List<String>>();
+        expected.add(Arrays.asList("a", "b"));
+        expected.add(Arrays.asList("c"));
+        Assert.assertEquals(expected, translator.requests);
+        Assert.assertEquals(2, translator.getNrRemoteCalls());
+    }
+
+    @Test
+    public void testRequestsAreBoundedByCharacters() {
+        final RecordingTranslator translator = new RecordingTranslator(10, 5);
+        Assert.assertEquals(Arrays.asList("de:ab", "de:cd", "de:e", "de:longest", "de:f"),
+                translator.translateAll(Arrays.asList("ab", "cd", "e", "longest", "f"), "en", "de"));
+
+        // A text longer than the bound is sent on its own rather than not at all.
+        final List<List<String>> expected = new ArrayList<List<String>>();
+        expected.add(Arrays.asList("ab", "cd", "e"));
+        expected.add(Arrays.asList("longest"));
+        expected.add(Arrays.asList("f"));
+        Assert.assertEquals(expected, translator.requests);
+    }
+}
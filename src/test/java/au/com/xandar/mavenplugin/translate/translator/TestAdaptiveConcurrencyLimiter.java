@@ -0,0 +1,79 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing AdaptiveConcurrencyLimiter and ConcurrencyLimitDecorator.
+ */
+public class TestAdaptiveConcurrencyLimiter {
+
+    private static final long MILLI = 1000000L;
+
+    @Test
+    public void testLimitGrowsWhileSaturatedAndHealthy() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 4);
+        for (int i = 0; i < 100; i++) {
+            final int limit = limiter.getLimit();
+            for (int j = 0; j < limit; j++) {
+                limiter.acquire();
+            }
+            for (int j = 0; j < limit; j++) {
+                limiter.onSuccess(10 * MILLI);
+            }
+        }
+        Assert.assertEquals(4, limiter.getLimit());
+        Assert.assertEquals(4, limiter.getPeakInFlight());
+        Assert.assertEquals(0, limiter.getDecreases());
+    }
+
+    @Test
+    public void testLimitIsHalvedOncePerRoundTripWhenThrottled() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 8);
+        for (int i = 0; i < 8; i++) {
+            limiter.acquire();
+        }
+        limiter.onSuccess(60000 * MILLI); // A round trip of a minute, so the following failures are all from the same burst.
+        limiter.onOverload(true);
+        limiter.onOverload(true);
+        limiter.onOverload(false);
+        Assert.assertEquals(4, limiter.getLimit());
+        Assert.assertEquals(1, limiter.getDecreases());
+        Assert.assertEquals(2, limiter.getThrottles());
+    }
+
+    @Test
+    public void testDecoratorReportsThrottling() {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2);
+        final ConcurrencyLimitDecorator decorator = new ConcurrencyLimitDecorator(new AbstractTranslator() {
+            public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+                if ("busy".equals(text)) {
+                    throw new TranslationException("Too many requests", null, 429, -1);
+                }
+                if ("bad".equals(text)) {
+                    throw new TranslationException("Bad request", null, 400, -1);
+                }
+                return text.toString();
+            }
+        }, limiter);
+
+        Assert.assertEquals(Arrays.asList("OK"), decorator.translateAll(Arrays.asList("OK"), "en", "de"));
+        try {
+            decorator.translate("bad", "en", "de");
+            Assert.fail("Expected the bad request to fail");
+        } catch (TranslationException e) {
+            // expected
+        }
+        Assert.assertEquals(2, limiter.getLimit());
+        try {
+            decorator.translate("busy", "en", "de");
+            Assert.fail("Expected the busy request to fail");
+        } catch (TranslationException e) {
+            // expected
+        }
+        Assert.assertEquals(1, limiter.getLimit());
+        Assert.assertEquals(1, limiter.getThrottles());
+    }
+}
@@ -0,0 +1,44 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing BingTranslator.
+ */
+public class TestBingTranslator {
+
+    @Test
+    public void testResponseIsParsed() {
+        Assert.assertEquals(Arrays.asList("Hallo", "Welt"), BingTranslator.parseResponse(
+                "\uFEFF[{\"From\":\"en\",\"TranslatedText\":\"Hallo\"},{\"From\":\"en\",\"TranslatedText\":\"Welt\"}]", 2));
+    }
+
+    @Test
+    public void testErrorIsReported() {
+        try {
+            BingTranslator.parseResponse("\uFEFF\"ArgumentException: Invalid appId\"", 1);
+            Assert.fail("Expected the error to be reported");
+        } catch (TranslationException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Invalid appId"));
+        }
+    }
+
+    @Test
+    public void testTextsArePostedOverHttps() {
+        final HttpTransport transport = new HttpTransport() {
+            @Override
+            protected String execute(String method, String url, Map<String, String> headers, String form) {
+                Assert.assertEquals("POST", method);
+                Assert.assertEquals("https://api.microsofttranslator.com/V2/Ajax.svc/TranslateArray", url);
+                Assert.assertTrue(form, form.contains("texts=%5B%22Hello%22%2C%22World%22%5D"));
+                return "\uFEFF[{\"TranslatedText\":\"Hallo\"},{\"TranslatedText\":\"Welt\"}]";
+            }
+        };
+        Assert.assertEquals(Arrays.asList("Hallo", "Welt"),
+                new BingTranslator(transport).translateAll(Arrays.asList("Hello", "World"), "en", "de"));
+    }
+}
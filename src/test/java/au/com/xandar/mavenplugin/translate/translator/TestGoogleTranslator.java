@@ -0,0 +1,96 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing GoogleTranslator against a stand in for the service.
+ */
+public class TestGoogleTranslator {
+
+    /**
+     * Echoes each text back prefixed by the key it was sent with.
+     */
+    private static class EchoTransport extends HttpTransport {
+        @Override
+        protected String execute(String method, String url, Map<String, String> headers, String form) {
+            Assert.assertEquals("POST", method);
+            Assert.assertEquals("GET", headers.get("X-HTTP-Method-Override"));
+            String key = null;
+            final StringBuilder response = new StringBuilder("{\"data\":{\"translations\":[");
+            for (final String parameter : form.split("&")) {
+                final String[] nameValue = parameter.split("=");
+                final String value = decode(nameValue[1]);
+                if ("key".equals(nameValue[0])) {
+                    key = value;
+                } else if ("q".equals(nameValue[0])) {
+                    if (response.charAt(response.length() - 1) == '}') {
+                        response.append(',');
+                    }
+                    response.append("{\"translatedText\":\"").append(key).append(':').append(value).append("\"}");
+                }
+            }
+            return response.append("]}}").toString();
+        }
+
+        private String decode(String value) {
+            try {
+                return URLDecoder.decode(value, "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Test
+    public void testInstancesWithDifferentKeysCanBeUsedConcurrently() throws Exception {
+        final EchoTransport transport = new EchoTransport();
+        final GoogleTranslator first = new GoogleTranslator(transport);
+        first.setApiKey("first");
+        final GoogleTranslator second = new GoogleTranslator(transport);
+        second.setApiKey("second");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<String>>> futures = new ArrayList<Future<List<String>>>();
+            for (int i = 0; i < 100; i++) {
+                final GoogleTranslator translator = (i % 2 == 0) ? first : second;
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    public List<String> call() {
+                        return translator.translateAll(Arrays.asList("OK", "", "Cancel & close"), "en", "de");
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                final String key = (i % 2 == 0) ? "first" : "second";
+                Assert.assertEquals(Arrays.asList(key + ":OK", "", key + ":Cancel & close"), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(50, first.getNrRemoteCalls());
+        Assert.assertEquals(50, second.getNrRemoteCalls());
+    }
+
+    @Test
+    public void testMissingTranslationsAreRejected() {
+        try {
+            GoogleTranslator.parseResponse("{\"data\":{\"translations\":[{\"translatedText\":\"Hallo\"}]}}", 2);
+            Assert.fail("Expected too few translations to be rejected");
+        } catch (TranslationException e) {
+            // expected
+        }
+        Assert.assertEquals(Arrays.asList("Hallo"), GoogleTranslator.parseResponse("{\"data\":{\"translations\":[{\"translatedText\":\"Hallo\"}]}}", 1));
+    }
+}
@@ -0,0 +1,136 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing HedgingTranslator.
+ */
+public class TestHedgingTranslator {
+
+    private static final String SOURCE_LANG = "en";
+    private static final String TARGET_LANG = "de";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /**
+     * Takes 5ms, except for the requests numbered by slowRequest which take 2s.
+     */
+    private static class SlowTranslator extends AbstractTranslator {
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int slowRequest = -1;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            final int requestNr = requests.incrementAndGet();
+            try {
+                Thread.sleep((requestNr == slowRequest) ? 2000 : 5);
+            } catch (InterruptedException e) {
+                throw new TranslationException("Interrupted", e);
+            }
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    /**
+     * Takes 5ms, except for the requests numbered by slowRequest which ignore interrupts and wait until the transport aborts them.
+     */
+    private static class UninterruptibleTranslator extends AbstractTranslator {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private final CountDownLatch slowRequestDone = new CountDownLatch(1);
+        private volatile int slowRequest = -1;
+        private volatile Thread slowThread;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            if (requests.incrementAndGet() != slowRequest) {
+                sleep(5);
+                return targetLanguage + ":" + text;
+            }
+            slowThread = Thread.currentThread();
+            final long start = System.currentTimeMillis();
+            while (aborted.getCount() > 0 && System.currentTimeMillis() - start < 5000) {
+                sleep(10);
+            }
+            slowRequestDone.countDown();
+            throw new TranslationException("Aborted", null);
+        }
+        private void sleep(long millis) {
+            final long end = System.currentTimeMillis() + millis;
+            while (System.currentTimeMillis() < end) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    // Ignored, as a thread reading a response would.
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowRequestIsHedged() {
+        final SlowTranslator slowTranslator = new SlowTranslator();
+        final HedgingTranslator hedger = new HedgingTranslator(slowTranslator, executor, 90, 0.1);
+        for (int i = 0; i < 30; i++) {
+            Assert.assertEquals("de:OK", hedger.translate("OK", SOURCE_LANG, TARGET_LANG));
+        }
+        final long hedges = hedger.getHedges(); // A scheduling hiccup may have caused a hedge already.
+        final long hedgeWins = hedger.getHedgeWins();
+
+        slowTranslator.slowRequest = slowTranslator.requests.get() + 1;
+        final long start = System.currentTimeMillis();
+        Assert.assertEquals("de:Slow", hedger.translate("Slow", SOURCE_LANG, TARGET_LANG));
+        final long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertTrue("elapsed=" + elapsed, elapsed < 1000);
+        Assert.assertEquals(hedges + 1, hedger.getHedges());
+        Assert.assertEquals(hedgeWins + 1, hedger.getHedgeWins());
+    }
+
+    @Test
+    public void testHedgesAreLimitedByBudget() {
+        final SlowTranslator slowTranslator = new SlowTranslator();
+        final HedgingTranslator hedger = new HedgingTranslator(slowTranslator, executor, 90, 0.0);
+        for (int i = 0; i < 30; i++) {
+            hedger.translate("OK", SOURCE_LANG, TARGET_LANG);
+        }
+        slowTranslator.slowRequest = slowTranslator.requests.get() + 1;
+        final long start = System.currentTimeMillis();
+        Assert.assertEquals("de:Slow", hedger.translate("Slow", SOURCE_LANG, TARGET_LANG));
+        final long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertTrue("elapsed=" + elapsed, elapsed >= 1900);
+        Assert.assertEquals(0, hedger.getHedges());
+        Assert.assertTrue(hedger.getOverBudget() >= 1);
+    }
+
+    @Test
+    public void testLoserIsAbortedThroughTheTransport() throws Exception {
+        final UninterruptibleTranslator slowTranslator = new UninterruptibleTranslator();
+        final HedgingTranslator hedger = new HedgingTranslator(slowTranslator, executor, 90, 1.0);
+        hedger.setTransport(new HttpTransport() {
+            @Override
+            public void abort(Thread thread) {
+                if (thread == slowTranslator.slowThread) {
+                    slowTranslator.aborted.countDown();
+                }
+            }
+        });
+        for (int i = 0; i < 30; i++) {
+            hedger.translate("OK", SOURCE_LANG, TARGET_LANG);
+        }
+
+        slowTranslator.slowRequest = slowTranslator.requests.get() + 1;
+        Assert.assertEquals("de:Slow", hedger.translate("Slow", SOURCE_LANG, TARGET_LANG));
+        Assert.assertTrue("Loser was not aborted", slowTranslator.slowRequestDone.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,171 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Responsible for testing HttpTransport and the translators that use it against a local stand in for the service.
+ */
+public class TestHttpTransport {
+
+    private HttpServer server;
+    private String serverUrl;
+    private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+    private final CountDownLatch releaseHungRequests = new CountDownLatch(1);
+
+    /**
+     * Stands in for the Google service, translating each text to upper case, or throttling if asked to.
+     */
+    private class StandInHandler implements HttpHandler {
+        public void handle(HttpExchange exchange) throws IOException {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            final String form = readFully(exchange.getRequestBody());
+            if (form.contains("q=hang")) {
+                try {
+                    releaseHungRequests.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (form.contains("q=throttle")) {
+                exchange.getResponseHeaders().add("Retry-After", "2");
+                send(exchange, 429, "Slow down", false);
+                return;
+            }
+
+            final StringBuilder response = new StringBuilder("{\"data\":{\"translations\":[");
+            for (final String parameter : form.split("&")) {
+                if (parameter.startsWith("q=")) {
+                    if (response.charAt(response.length() - 1) == '}') {
+                        response.append(',');
+                    }
+                    final String text = URLDecoder.decode(parameter.substring(2), "UTF-8");
+                    response.append("{\"translatedText\":\"").append(text.toUpperCase()).append("\"}");
+                }
+            }
+            response.append("]}}");
+            final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            send(exchange, 200, response.toString(), acceptEncoding != null && acceptEncoding.contains("gzip"));
+        }
+
+        private void send(HttpExchange exchange, int statusCode, String body, boolean gzip) throws IOException {
+            byte[] bytes = body.getBytes("UTF-8");
+            if (gzip) {
+                final ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+                final GZIPOutputStream out = new GZIPOutputStream(zipped);
+                out.write(bytes);
+                out.close();
+                bytes = zipped.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(statusCode, bytes.length);
+            final OutputStream out = exchange.getResponseBody();
+            out.write(bytes);
+            out.close();
+        }
+
+        private String readFully(InputStream in) throws IOException {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int nrRead;
+            while ((nrRead = in.read(buffer)) >= 0) {
+                body.write(buffer, 0, nrRead);
+            }
+            in.close();
+            return body.toString("UTF-8");
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/translate", new StandInHandler());
+        server.start();
+        serverUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/translate";
+    }
+
+    @After
+    public void tearDown() {
+        releaseHungRequests.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGzippedResponsesAreReadOverReusedConnections() {
+        final HttpTransport transport = new HttpTransport();
+        final GoogleTranslator translator = new GoogleTranslator(transport);
+        translator.setServiceUrl(serverUrl);
+        translator.setApiKey("key");
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(Arrays.asList("OK", "", "CANCEL & CLOSE"), translator.translateAll(Arrays.asList("ok", "", "Cancel & close"), "en", "de"));
+        }
+        Assert.assertEquals(10, transport.getNrRequests());
+        Assert.assertEquals("Connections used", 1, clientPorts.size());
+        Assert.assertTrue(transport.getBytesReceived() > 0);
+    }
+
+    @Test
+    public void testThrottlingIsReportedWithRetryAfter() {
+        final HttpTransport transport = new HttpTransport();
+        final GoogleTranslator translator = new GoogleTranslator(transport);
+        translator.setServiceUrl(serverUrl);
+        try {
+            translator.translate("throttle", "en", "de");
+            Assert.fail("Expected the request to be throttled");
+        } catch (TranslationException e) {
+            Assert.assertEquals(429, e.getStatusCode());
+            Assert.assertEquals(2000, e.getRetryAfterMillis());
+            Assert.assertFalse("Message must not hold the URL", e.getMessage().contains("/translate"));
+        }
+        Assert.assertEquals("OK", translator.translate("ok", "en", "de"));
+    }
+
+    @Test
+    public void testAbortStopsARequestWaitingOnTheResponse() throws Exception {
+        final HttpTransport transport = new HttpTransport();
+        final GoogleTranslator translator = new GoogleTranslator(transport);
+        translator.setServiceUrl(serverUrl);
+
+        final TranslationException[] failure = new TranslationException[1];
+        final Thread requestThread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    translator.translate("hang", "en", "de");
+                } catch (TranslationException e) {
+                    failure[0] = e;
+                }
+            }
+        };
+        final long start = System.currentTimeMillis();
+        requestThread.start();
+        Thread.sleep(300);
+        transport.abort(requestThread);
+        requestThread.join(3000);
+
+        final long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed=" + elapsed, elapsed < 3000);
+        Assert.assertTrue("Expected the request to fail", failure[0] != null);
+    }
+}
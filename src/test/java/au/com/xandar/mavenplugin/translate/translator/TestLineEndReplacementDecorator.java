@@ -16,7 +16,7 @@ import org.junit.Test;
  */
 public class TestLineEndReplacementDecorator {
 
-    private static class  TestTranslator implements Translator {
+    private static class  TestTranslator extends AbstractTranslator {
         private List<String> request = new ArrayList<String>();
         public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
             request.add(text.toString());
@@ -24,6 +24,22 @@ public class TestLineEndReplacementDecorator {
         }
     }
 
+    private static class  BatchRecordingTranslator extends AbstractTranslator {
+        private List<List<String>> batches = new ArrayList<List<String>>();
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            return text.toString().toUpperCase();
+        }
+        @Override
+        public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+            final List<String> batch = new ArrayList<String>();
+            for (CharSequence text : texts) {
+                batch.add(text.toString());
+            }
+            batches.add(batch);
+            return super.translateAll(texts, sourceLanguage, targetLanguage);
+        }
+    }
+
     private static final String SOURCE_LANG = "en";
     private static final String TARGET_LANG = "de";
 
@@ -64,4 +80,18 @@ public class TestLineEndReplacementDecorator {
                 ),
                 testTranslator.request);
     }
+
+    @Test
+    public void testAllSegmentsAreTranslatedInOneBatch() throws Exception {
+        final BatchRecordingTranslator testTranslator = new BatchRecordingTranslator();
+        final LineEndReplacementDecorator replacer = new LineEndReplacementDecorator(testTranslator);
+
+        final List<String> translations = replacer.translateAll(
+                Arrays.asList("Well done!\\nYou found another one.", "Finish", "Line end\\n"),
+                SOURCE_LANG, TARGET_LANG);
+
+        Assert.assertEquals(Arrays.asList("WELL DONE!\\nYOU FOUND ANOTHER ONE.", "FINISH", "LINE END\\n"), translations);
+        Assert.assertEquals(1, testTranslator.batches.size());
+        Assert.assertEquals(Arrays.asList("Well done!", "You found another one.", "Finish", "Line end"), testTranslator.batches.get(0));
+    }
 }
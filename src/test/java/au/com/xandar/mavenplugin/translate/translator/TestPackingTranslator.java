@@ -0,0 +1,74 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing PackingTranslator.
+ */
+public class TestPackingTranslator {
+
+    private static final String SOURCE_LANG = "en";
+    private static final String TARGET_LANG = "de";
+
+    private static class TestTranslator extends AbstractTranslator {
+        private final List<String> requests = new ArrayList<String>();
+        private boolean dropSeparators;
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            requests.add(text.toString());
+            final String translation = " " + text.toString().toUpperCase() + " ";
+            return dropSeparators ? translation.replaceAll("SEG_TOKEN_\\d+", "") : translation;
+        }
+    }
+
+    @Test
+    public void testShortTextsArePackedUpToTheLimit() {
+        final TestTranslator testTranslator = new TestTranslator();
+        final PackingTranslator packer = new PackingTranslator(testTranslator, 45);
+
+        final List<String> texts = Arrays.asList("OK", "Cancel", "", "Save as", " Padded", "Delete all", "Open", "A much longer text than the limit of each pack");
+        final List<String> translations = packer.translateAll(texts, SOURCE_LANG, TARGET_LANG);
+
+        Assert.assertEquals(Arrays.asList("OK", "CANCEL", "", "SAVE AS", "  PADDED ", "DELETE ALL", "OPEN", " A MUCH LONGER TEXT THAN THE LIMIT OF EACH PACK "), translations);
+        Assert.assertEquals(Arrays.asList(
+                " Padded",
+                "OK\nSEG_TOKEN_1\nCancel\nSEG_TOKEN_2\nSave as",
+                "A much longer text than the limit of each pack",
+                "Delete all\nSEG_TOKEN_1\nOpen"), testTranslator.requests);
+        Assert.assertEquals(2, packer.getPacks());
+        Assert.assertEquals(5, packer.getPackedTexts());
+        Assert.assertEquals(0, packer.getFallbacks());
+    }
+
+    @Test
+    public void testPackIsTranslatedTextByTextIfSeparatorIsLost() {
+        final TestTranslator testTranslator = new TestTranslator();
+        testTranslator.dropSeparators = true;
+        final PackingTranslator packer = new PackingTranslator(testTranslator, 100);
+
+        final List<String> translations = packer.translateAll(Arrays.asList("OK", "Cancel"), SOURCE_LANG, TARGET_LANG);
+
+        Assert.assertEquals(Arrays.asList(" OK ", " CANCEL "), translations);
+        Assert.assertEquals(Arrays.asList("OK\nSEG_TOKEN_1\nCancel", "OK", "Cancel"), testTranslator.requests);
+        Assert.assertEquals(1, packer.getFallbacks());
+    }
+
+    @Test
+    public void testUnpackFindsEachSeparatorInOrder() {
+        final StringBuilder pack = new StringBuilder("t0");
+        for (int i = 1; i < 12; i++) {
+            pack.append(" SEG_TOKEN_").append(i).append(" t").append(i);
+        }
+        final List<String> unpacked = PackingTranslator.unpack(pack.toString(), 12);
+        Assert.assertEquals(12, unpacked.size());
+        Assert.assertEquals("t1", unpacked.get(1));
+        Assert.assertEquals("t11", unpacked.get(11));
+
+        Assert.assertNull(PackingTranslator.unpack("a SEG_TOKEN_2 c SEG_TOKEN_1 b", 3));
+        Assert.assertNull(PackingTranslator.unpack("a SEG_TOKEN_1 SEG_TOKEN_2 c", 3));
+    }
+}
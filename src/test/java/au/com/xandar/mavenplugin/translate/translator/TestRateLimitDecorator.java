@@ -0,0 +1,49 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing RateLimitDecorator.
+ */
+public class TestRateLimitDecorator {
+
+    private static class RecordingTranslator extends AbstractTranslator {
+        private final List<Integer> requestSizes = new ArrayList<Integer>();
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            return targetLanguage + ":" + text;
+        }
+        @Override
+        public List<String> translateAll(List<? extends CharSequence> texts, String sourceLanguage, String targetLanguage) {
+            requestSizes.add(texts.size());
+            return super.translateAll(texts, sourceLanguage, targetLanguage);
+        }
+    }
+
+    @Test
+    public void testEachRequestWaitsOnTheLimiter() {
+        final RecordingTranslator service = new RecordingTranslator();
+        final RateLimitDecorator decorator = new RateLimitDecorator(service, new RateLimiter(10, 0), 2);
+
+        // The first 10 requests are the burst, so only the requests beyond them wait.
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            decorator.translate("text" + i, "en", "de");
+        }
+        Assert.assertEquals(Arrays.asList("de:a", "de:", "de:b", "de:c", "de:d"),
+                decorator.translateAll(Arrays.asList("a", "", "b", "c", "d"), "en", "de"));
+        decorator.translate("", "en", "de"); // Not sent so doesn't wait.
+        final long elapsed = System.currentTimeMillis() - start;
+
+        Assert.assertEquals(Arrays.asList(2, 2, 1), service.requestSizes);
+        Assert.assertTrue("elapsed=" + elapsed, elapsed < 1000);
+        Assert.assertEquals(0, decorator.getRateLimiter().getWaitNanos());
+
+        decorator.translateAll(Arrays.asList("e", "f", "g", "h", "i", "j", "k", "l", "m", "n"), "en", "de");
+        Assert.assertTrue(decorator.getRateLimiter().getWaitNanos() >= 150000000L);
+    }
+}
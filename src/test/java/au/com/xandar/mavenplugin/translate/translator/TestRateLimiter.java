@@ -0,0 +1,48 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing RateLimiter.
+ */
+public class TestRateLimiter {
+
+    @Test
+    public void testNoLimit() throws Exception {
+        final RateLimiter limiter = new RateLimiter(0, 0);
+        final long start = System.currentTimeMillis();
+        for (int i = 0; i < 10000; i++) {
+            limiter.acquire(1000);
+        }
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    @Test
+    public void testRequestsAreSpreadOutOnceBurstIsUsed() throws Exception {
+        final RateLimiter limiter = new RateLimiter(20, 0);
+        final long start = System.currentTimeMillis();
+
+        // First 20 requests are the burst, the next 10 must be spread over half a second.
+        for (int i = 0; i < 30; i++) {
+            limiter.acquire(10);
+        }
+        final long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed=" + elapsed, elapsed >= 450);
+        Assert.assertTrue("elapsed=" + elapsed, elapsed < 1500);
+    }
+
+    @Test
+    public void testLargeRequestGoesIntoDebt() throws Exception {
+        final RateLimiter limiter = new RateLimiter(0, 1000);
+        final long start = System.currentTimeMillis();
+
+        limiter.acquire(1500); // Bucket is full so this is allowed, leaving a debt of 500 characters.
+        Assert.assertTrue(System.currentTimeMillis() - start < 200);
+
+        limiter.acquire(100); // Must wait for the debt to be paid off and 100 more characters.
+        final long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed=" + elapsed, elapsed >= 550);
+        Assert.assertTrue("elapsed=" + elapsed, elapsed < 1500);
+    }
+}
@@ -0,0 +1,108 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing RetryingTranslator and CircuitBreaker.
+ */
+public class TestRetryingTranslator {
+
+    private static final String SOURCE_LANG = "en";
+    private static final String TARGET_LANG = "de";
+
+    private static class FlakyTranslator extends AbstractTranslator {
+        private final RuntimeException failure;
+        private int failuresLeft;
+        private int requests;
+        private FlakyTranslator(int failures, RuntimeException failure) {
+            this.failuresLeft = failures;
+            this.failure = failure;
+        }
+        public synchronized String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            requests++;
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw failure;
+            }
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    private RetryingTranslator createRetrier(Translator translator, int maxAttempts, CircuitBreaker breaker) {
+        final RetryingTranslator retrier = new RetryingTranslator(translator, maxAttempts, breaker);
+        retrier.setBaseDelayMillis(10);
+        return retrier;
+    }
+
+    @Test
+    public void testTransientFailuresAreRetried() {
+        final FlakyTranslator flaky = new FlakyTranslator(2, new TranslationException("Could not translate", new IOException("Connection reset")));
+        final RetryingTranslator retrier = createRetrier(flaky, 3, new CircuitBreaker(10, 1000, 1000));
+
+        Assert.assertEquals(Arrays.asList("de:OK", "de:Cancel"), retrier.translateAll(Arrays.asList("OK", "Cancel"), SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals(4, flaky.requests);
+        Assert.assertEquals(2, retrier.getRetries());
+    }
+
+    @Test
+    public void testBadRequestIsNotRetried() {
+        final TranslationException badRequest = new TranslationException("Bad request", null, 400, -1);
+        final FlakyTranslator flaky = new FlakyTranslator(1, badRequest);
+        final RetryingTranslator retrier = createRetrier(flaky, 3, new CircuitBreaker(10, 1000, 1000));
+        try {
+            retrier.translate("OK", SOURCE_LANG, TARGET_LANG);
+            Assert.fail("Expected the bad request to fail");
+        } catch (TranslationException e) {
+            Assert.assertSame(badRequest, e);
+        }
+        Assert.assertEquals(1, flaky.requests);
+    }
+
+    @Test
+    public void testRetryAfterIsHonoured() {
+        final TranslationException tooManyRequests = new TranslationException("Too many requests", null, 429, 300);
+        final FlakyTranslator flaky = new FlakyTranslator(1, tooManyRequests);
+        final RetryingTranslator retrier = createRetrier(flaky, 2, new CircuitBreaker(10, 1000, 1000));
+
+        final long start = System.currentTimeMillis();
+        Assert.assertEquals("de:OK", retrier.translate("OK", SOURCE_LANG, TARGET_LANG));
+        final long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed=" + elapsed, elapsed >= 280);
+    }
+
+    @Test
+    public void testBreakerOpensAfterConsecutiveFailuresAndClosesOnSuccess() {
+        final CircuitBreaker breaker = new CircuitBreaker(2, 300, 1000);
+        final long noWait = System.nanoTime();
+        Assert.assertTrue(breaker.acquire(noWait));
+        breaker.onFailure(-1);
+        Assert.assertTrue(breaker.acquire(noWait));
+        breaker.onFailure(-1);
+        Assert.assertFalse("Breaker should be open", breaker.acquire(System.nanoTime()));
+        Assert.assertEquals(1, breaker.getTrips());
+
+        final long start = System.currentTimeMillis();
+        Assert.assertTrue(breaker.acquire(System.nanoTime() + 2000 * 1000000L));
+        final long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("elapsed=" + elapsed, elapsed >= 250);
+
+        breaker.onSuccess();
+        Assert.assertTrue(breaker.acquire(System.nanoTime()));
+    }
+
+    @Test
+    public void testStatusCodeAndRetryAfterAreParsed() {
+        Assert.assertEquals(503, RetryingTranslator.getStatusCode(new TranslationException("Could not translate",
+                new TranslationException("Service unavailable", null, 503, -1))));
+        Assert.assertEquals(-1, RetryingTranslator.getStatusCode(new TranslationException("Could not translate",
+                new IOException("Server returned HTTP response code: 503 for URL: http://localhost"))));
+        Assert.assertEquals(-1, RetryingTranslator.getStatusCode(new IllegalStateException("Oops")));
+        Assert.assertEquals(3000, RetryingTranslator.parseRetryAfter(" 3 "));
+        Assert.assertEquals(0, RetryingTranslator.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        Assert.assertEquals(-1, RetryingTranslator.parseRetryAfter("soon"));
+    }
+}
@@ -0,0 +1,66 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing the StatisticsDecorator and its LatencyHistogram.
+ */
+public class TestStatisticsDecorator {
+
+    private static class FailingTranslator extends AbstractTranslator {
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            if (text.length() == 0) {
+                throw new IllegalStateException("Nothing to translate");
+            }
+            return text.toString();
+        }
+    }
+
+    @Test
+    public void testCallsAreRecordedPerLanguagePair() {
+        final StatisticsDecorator decorator = new StatisticsDecorator(new FailingTranslator(), "Test");
+        decorator.translate("hello", "en", "de");
+        decorator.translateAll(Arrays.asList("one", "two"), "en", "de");
+        decorator.translate("bonjour", "en", "fr");
+        try {
+            decorator.translate("", "en", "fr");
+            Assert.fail("Expected the empty text to fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        final SortedMap<String, CallStatistics> statistics = decorator.getStatistics();
+        Assert.assertEquals(Arrays.asList("en->de", "en->fr"), Arrays.asList(statistics.keySet().toArray()));
+
+        final CallStatistics german = statistics.get("en->de");
+        Assert.assertEquals(2, german.getCalls());
+        Assert.assertEquals(3, german.getTexts());
+        Assert.assertEquals(11, german.getCharacters());
+        Assert.assertEquals(0, german.getFailures());
+        Assert.assertEquals(2, german.getLatency().getCount());
+
+        final CallStatistics french = statistics.get("en->fr");
+        Assert.assertEquals(2, french.getCalls());
+        Assert.assertEquals(1, french.getFailures());
+    }
+
+    @Test
+    public void testPercentilesAreWithinTheirBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentileMicros(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000000L); // 1ms to 100ms
+        }
+
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(50500, histogram.getMeanMicros());
+        Assert.assertEquals(100000, histogram.getMaxMicros());
+        final long median = histogram.getPercentileMicros(50);
+        Assert.assertTrue("Median of " + median, median >= 50000 && median <= 2 * 50000);
+        Assert.assertEquals(100000, histogram.getPercentileMicros(100));
+    }
+}
@@ -0,0 +1,161 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing StringFormatTokenizer against the regular expression it replaces.
+ */
+public class TestStringFormatTokenizer {
+
+    // The regular expression previously used by StringFormatReplacementDecorator.
+    private static final Pattern PATTERN = Pattern.compile("(\\s*%(\\d*\\$)?[,+ (-0#]?\\d*(.\\d*)?(" +
+            "[sScCdoxXfeEgGaAbBhH%n]|" +
+            "ta|tA|tb|tB|tc|tC|td|tD|te|eF|th|tH|tI|tj|tk|tk|tl|tL|tm|tM|tN|tp|tQ|tr|tR|ts|tS|tT|ty|tY|tz|tZ" +
+            ")[-_:]?\\s*)+");
+
+    private static final List<String> EXAMPLES = Arrays.asList(
+            "",
+            "No formats at all",
+            "100% sure",
+            "Hello %s",
+            "%1$s has %2$d new messages",
+            "You have %d points and %d lives left.\\nPlay again?",
+            "Total: %,.2f %s",
+            "%-10s|%05d|%+.3e",
+            "Today is %tA, %1$tB %1$td",
+            "Score %d:%d - well done",
+            "%s%s%s",
+            "Rate: 50%% of %s",
+            "%sd is not %s",
+            "Value %(,.2f owed",
+            "Word\t%s\r\nnext line %n"
+    );
+
+    @Test
+    public void testExamplesMatchRegex() {
+        for (final String text : EXAMPLES) {
+            assertMatchesRegex(text);
+        }
+    }
+
+    @Test
+    public void testRandomTextMatchesRegex() {
+        final String alphabet = "%%%%sdtHb$1205 .,-_:(#\n\tax";
+        final Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            final StringBuilder text = new StringBuilder();
+            final int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertMatchesRegex(text.toString());
+        }
+    }
+
+    @Test
+    public void testTokensAreReplacedAsBefore() {
+        for (final String text : EXAMPLES) {
+            final StringFormatTokenizer tokenizer = StringFormatTokenizer.tokenize(text);
+            final Map<String, String> tokens = getRegexTokens(text);
+
+            // The translator adds spaces around the tokens, or takes them away.
+            final String tokenizedText = tokenizer.getTokenizedText();
+            for (final String translated : Arrays.asList(tokenizedText, tokenizedText.replace(" ", "  "), tokenizedText.replace(" STR", "STR"))) {
+                Assert.assertEquals(text, replaceTokensWithRegexReplacer(translated, tokens), tokenizer.getTextWithTokensReplaced(translated));
+            }
+            Assert.assertEquals(text, tokenizer.getTextWithTokensReplaced(tokenizedText));
+        }
+    }
+
+    @Test
+    public void testTokensAreNotConfusedWithLongerTokens() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 12; i++) {
+            text.append("Item ").append(i).append(" is %").append(i).append("$s. ");
+        }
+        final StringFormatTokenizer tokenizer = StringFormatTokenizer.tokenize(text);
+        Assert.assertEquals(12, tokenizer.getFormats().size());
+
+        // Translator swaps STR_TOKEN_1 and STR_TOKEN_10, so STR_TOKEN_10 is found before STR_TOKEN_1.
+        final String reordered = tokenizer.getTokenizedText()
+                .replace(" STR_TOKEN_1 ", "#").replace(" STR_TOKEN_10 ", " STR_TOKEN_1 ").replace("#", " STR_TOKEN_10 ");
+        final String expected = text.toString()
+                .replace(" %1$s.", "#").replace(" %10$s.", " %1$s.").replace("#", " %10$s.");
+        Assert.assertEquals(expected, tokenizer.getTextWithTokensReplaced(reordered));
+    }
+
+    @Test
+    public void testRepeatedAndUnknownTokensAreLeftAlone() {
+        final StringFormatTokenizer tokenizer = StringFormatTokenizer.tokenize("Hello %s and");
+        Assert.assertEquals("Hello STR_TOKEN_1 and", tokenizer.getTokenizedText());
+        Assert.assertEquals("Hallo %s und STR_TOKEN_1 STR_TOKEN_2 STR_TOKEN_01",
+                tokenizer.getTextWithTokensReplaced("Hallo STR_TOKEN_1 und STR_TOKEN_1 STR_TOKEN_2 STR_TOKEN_01"));
+    }
+
+    private void assertMatchesRegex(String text) {
+        final StringFormatTokenizer tokenizer = StringFormatTokenizer.tokenize(text);
+
+        final List<String> formats = new ArrayList<String>();
+        final StringBuilder tokenizedText = new StringBuilder();
+        final Matcher matcher = PATTERN.matcher(text);
+        int copied = 0;
+        while (matcher.find()) {
+            formats.add(matcher.group());
+            tokenizedText.append(text, copied, matcher.start());
+            tokenizedText.append(" STR_TOKEN_").append(formats.size()).append(" ");
+            copied = matcher.end();
+        }
+        tokenizedText.append(text, copied, text.length());
+
+        Assert.assertEquals("Formats of '" + text + "'", formats, tokenizer.getFormats());
+        Assert.assertEquals("Tokenized '" + text + "'", tokenizedText.toString(), tokenizer.getTokenizedText());
+    }
+
+    private Map<String, String> getRegexTokens(String text) {
+        final Map<String, String> tokens = new HashMap<String, String>();
+        final Matcher matcher = PATTERN.matcher(text);
+        while (matcher.find()) {
+            tokens.put("STR_TOKEN_" + (tokens.size() + 1), matcher.group());
+        }
+        return tokens;
+    }
+
+    /**
+     * The two pass replacement previously used by StringFormatReplacementDecorator.
+     */
+    private String replaceTokensWithRegexReplacer(String text, Map<String, String> tokens) {
+        final StringBuilder output = new StringBuilder(text);
+        for (final Map.Entry<String, String> entry : tokens.entrySet()) {
+            int i = output.indexOf(entry.getKey());
+            if (i == -1) {
+                continue;
+            }
+            while ((i > 0) && (output.charAt(i - 1) == 32)) {
+                output.deleteCharAt(--i);
+            }
+            final int j = i + entry.getKey().length();
+            while ((j < output.length()) && (output.charAt(j) == 32)) {
+                output.deleteCharAt(j);
+            }
+        }
+        for (final Map.Entry<String, String> entry : tokens.entrySet()) {
+            final int i = output.indexOf(entry.getKey());
+            if (i == -1) {
+                continue;
+            }
+            output.delete(i, i + entry.getKey().length());
+            output.insert(i, entry.getValue());
+        }
+        return output.toString();
+    }
+}
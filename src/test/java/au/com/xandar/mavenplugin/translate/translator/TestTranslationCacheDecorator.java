@@ -0,0 +1,107 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Responsible for testing TranslationCacheDecorator and SieveCache.
+ */
+public class TestTranslationCacheDecorator {
+
+    private static final String SOURCE_LANG = "en";
+    private static final String TARGET_LANG = "de";
+
+    private static class TestTranslator extends AbstractTranslator {
+        private final List<String> request = new ArrayList<String>();
+        public synchronized String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            request.add(text.toString());
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    @Test
+    public void testRepeatedTextsAreTranslatedOnce() throws Exception {
+        final TestTranslator testTranslator = new TestTranslator();
+        final TranslationCacheDecorator cache = new TranslationCacheDecorator(testTranslator, 100);
+
+        final List<String> translations = cache.translateAll(Arrays.asList("OK", "Cancel", "OK"), SOURCE_LANG, TARGET_LANG);
+        Assert.assertEquals(Arrays.asList("de:OK", "de:Cancel", "de:OK"), translations);
+        Assert.assertEquals("de:Cancel", cache.translate("Cancel", SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals("zh:Cancel", cache.translate("Cancel", SOURCE_LANG, "zh"));
+
+        Assert.assertEquals(Arrays.asList("OK", "Cancel", "Cancel"), testTranslator.request);
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(1, cache.getCoalesced());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneCall() throws Exception {
+        final AtomicInteger nrCalls = new AtomicInteger();
+        final CountDownLatch released = new CountDownLatch(1);
+        final TranslationCacheDecorator cache = new TranslationCacheDecorator(new AbstractTranslator() {
+            public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+                nrCalls.incrementAndGet();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return "Abbrechen";
+            }
+        }, 100);
+
+        final List<Thread> threads = new ArrayList<Thread>();
+        final List<String> results = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            final Thread thread = new Thread() {
+                public void run() {
+                    final String translation = cache.translate("Cancel", SOURCE_LANG, TARGET_LANG);
+                    synchronized (results) {
+                        results.add(translation);
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+
+        // Wait until every thread is either calling the translator or waiting on the call in flight.
+        while (cache.getMisses() + cache.getCoalesced() < threads.size()) {
+            Thread.sleep(10);
+        }
+        released.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(1, nrCalls.get());
+        Assert.assertEquals(Arrays.asList("Abbrechen", "Abbrechen", "Abbrechen", "Abbrechen", "Abbrechen"), results);
+        Assert.assertEquals(4, cache.getCoalesced());
+    }
+
+    @Test
+    public void testSieveEvictsUnvisitedEntries() throws Exception {
+        final SieveCache<String, String> cache = new SieveCache<String, String>(3);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+        cache.get("a");
+        cache.get("c");
+
+        cache.put("d", "4"); // b is the only entry that hasn't been visited.
+        Assert.assertEquals(3, cache.size());
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("1", cache.get("a"));
+
+        cache.put("e", "5"); // All visited marks are cleared by the sweep so the oldest after the hand goes.
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals("5", cache.get("e"));
+    }
+}
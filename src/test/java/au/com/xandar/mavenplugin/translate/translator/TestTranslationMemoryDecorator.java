@@ -0,0 +1,135 @@
+package au.com.xandar.mavenplugin.translate.translator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Responsible for testing TranslationMemoryDecorator.
+ */
+public class TestTranslationMemoryDecorator {
+
+    private static class TestTranslator extends AbstractTranslator {
+        private List<String> request = new ArrayList<String>();
+        public String translate(CharSequence text, String sourceLanguage, String targetLanguage) {
+            request.add(text.toString());
+            return targetLanguage + ":" + text;
+        }
+    }
+
+    private static final String SOURCE_LANG = "en";
+    private static final String TARGET_LANG = "de";
+    private static final String PROVIDER = "Google";
+
+    private static final File MEMORY_FOLDER = new File("target/test-translation-memory");
+
+    @Before
+    public void setUp() {
+        final File[] providers = MEMORY_FOLDER.listFiles();
+        if (providers != null) {
+            for (final File provider : providers) {
+                final File[] files = provider.listFiles();
+                if (files != null) {
+                    for (final File file : files) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyMissesAreTranslated() throws Exception {
+        final TestTranslator testTranslator = new TestTranslator();
+        final TranslationMemory memory = new TranslationMemory(MEMORY_FOLDER);
+        final TranslationMemoryDecorator decorator = new TranslationMemoryDecorator(testTranslator, memory, PROVIDER);
+
+        Assert.assertEquals("de:OK", decorator.translate("OK", SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals("de:Cancel", decorator.translate("Cancel", SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals("de:OK", decorator.translate("OK", SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals("zh:OK", decorator.translate("OK", SOURCE_LANG, "zh"));
+        memory.close();
+
+        Assert.assertEquals(Arrays.asList("OK", "Cancel", "OK"), testTranslator.request);
+        Assert.assertEquals(1, decorator.getHits());
+        Assert.assertEquals(3, decorator.getMisses());
+    }
+
+    @Test
+    public void testMemoryIsReusedAcrossBuilds() throws Exception {
+        final String multiLine = "Line one\\n\tLine two\nback\\slash";
+
+        final TranslationMemory firstBuild = new TranslationMemory(MEMORY_FOLDER);
+        new TranslationMemoryDecorator(new TestTranslator(), firstBuild, PROVIDER).translate(multiLine, SOURCE_LANG, TARGET_LANG);
+        firstBuild.close();
+
+        final TestTranslator testTranslator = new TestTranslator();
+        final TranslationMemory secondBuild = new TranslationMemory(MEMORY_FOLDER);
+        final TranslationMemoryDecorator decorator = new TranslationMemoryDecorator(testTranslator, secondBuild, PROVIDER);
+        Assert.assertEquals("de:" + multiLine, decorator.translate(multiLine, SOURCE_LANG, TARGET_LANG));
+        secondBuild.close();
+
+        Assert.assertTrue(testTranslator.request.isEmpty());
+
+        // A different provider must not be served translations from another provider.
+        final TranslationMemory otherProvider = new TranslationMemory(MEMORY_FOLDER);
+        new TranslationMemoryDecorator(testTranslator, otherProvider, "Bing").translate(multiLine, SOURCE_LANG, TARGET_LANG);
+        otherProvider.close();
+
+        Assert.assertEquals(Arrays.asList(multiLine), testTranslator.request);
+    }
+
+    @Test
+    public void testPartialLastEntryIsIgnoredAndReplaced() throws Exception {
+        // Left by a build that was killed while writing its second entry.
+        final File memoryFile = new File(MEMORY_FOLDER, PROVIDER + "/" + SOURCE_LANG + "_" + TARGET_LANG + ".tm");
+        writeFile(memoryFile, "OK\tde:OK\nCancel\tde:Can");
+
+        final TestTranslator testTranslator = new TestTranslator();
+        final TranslationMemory memory = new TranslationMemory(MEMORY_FOLDER);
+        final TranslationMemoryDecorator decorator = new TranslationMemoryDecorator(testTranslator, memory, PROVIDER);
+        Assert.assertEquals("de:OK", decorator.translate("OK", SOURCE_LANG, TARGET_LANG));
+        Assert.assertEquals("de:Cancel", decorator.translate("Cancel", SOURCE_LANG, TARGET_LANG));
+        memory.close();
+
+        Assert.assertEquals(Arrays.asList("Cancel"), testTranslator.request);
+        Assert.assertEquals("OK\tde:OK\nCancel\tde:Cancel\n", readFile(memoryFile));
+    }
+
+    private void writeFile(File file, String text) throws IOException {
+        file.getParentFile().mkdirs();
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String readFile(File file) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            final char[] buffer = new char[1024];
+            int nrRead;
+            while ((nrRead = reader.read(buffer)) >= 0) {
+                sb.append(buffer, 0, nrRead);
+            }
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+}